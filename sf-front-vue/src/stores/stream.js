@@ -1,7 +1,7 @@
 import {defineStore} from 'pinia';
 import {computed, ref} from 'vue';
 import {useUserStore} from './user';
-import {StreamsApi} from "@/api/src/index.js";
+import {ApiClient, StreamsApi} from "@/api/src/index.js";
 import {callProtectedApi} from './authHelpers';
 
 export const useStreamStore = defineStore('stream', () => {
@@ -14,6 +14,9 @@ export const useStreamStore = defineStore('stream', () => {
     const isLoading = ref(false);
     const error = ref(null);
 
+    let eventSource = null;
+    let eventSubscribers = 0;
+
     const enrichStream = (stream) => {
         if (!stream) return null;
 
@@ -61,13 +64,27 @@ export const useStreamStore = defineStore('stream', () => {
         return currentUserStreams.value.find(stream => stream.isLive) || null;
     });
 
+    const PAGE_LIMIT = 100;
+
+    // Listings are paginated, keep following X-Next-Cursor until the last page.
+    async function fetchAllPages(fetchPage) {
+        const streams = [];
+        let cursor;
+        do {
+            const {data, response} = await fetchPage({cursor, limit: PAGE_LIMIT});
+            streams.push(...data);
+            cursor = response.headers['x-next-cursor'];
+        } while (cursor);
+        return streams;
+    }
+
     async function fetchAllStreams() {
         isLoading.value = true;
         error.value = null;
 
         try {
             const streamsService = new StreamsApi();
-            const streams = await streamsService.getAllStreams();
+            const streams = await fetchAllPages(opts => streamsService.getAllStreamsWithHttpInfo(opts));
             allStreams.value = streams.map(stream => enrichStream(stream));
         } catch (err) {
             console.error('Ошибка при загрузке стримов:', err.message);
@@ -116,7 +133,8 @@ export const useStreamStore = defineStore('stream', () => {
 
             const userId = String(userStore.user.id);
 
-            const streams = await callProtectedApi(() => streamsService.getStreamsByUser(userId));
+            const streams = await callProtectedApi(() =>
+                fetchAllPages(opts => streamsService.getStreamsByUserWithHttpInfo(userId, opts)));
             currentUserStreams.value = streams.map(stream => enrichStream(stream));
         } catch (err) {
             console.error('Ошибка при загрузке стримов пользователя:', err.message);
@@ -260,7 +278,7 @@ export const useStreamStore = defineStore('stream', () => {
 
         try {
             const streamsService = new StreamsApi();
-            const streams = await streamsService.searchStreams(query);
+            const streams = await fetchAllPages(opts => streamsService.searchStreamsWithHttpInfo(query, opts));
             return streams.map(stream => enrichStream(stream));
         } catch (err) {
             console.error('Ошибка при поиске стримов:', err.message);
@@ -271,6 +289,74 @@ export const useStreamStore = defineStore('stream', () => {
         }
     }
 
+    async function sendViewerHeartbeat(streamId, sessionId) {
+        const streamsService = new StreamsApi();
+        return await streamsService.sendViewerHeartbeat(streamId, { sessionId });
+    }
+
+    function applyStreamChange(change) {
+        const index = liveStreams.value.findIndex(s => s.id === change.streamId);
+
+        switch (change.type) {
+            case 'STARTED':
+            case 'UPDATED': {
+                const enrichedStream = enrichStream(change.stream);
+                if (index !== -1) {
+                    liveStreams.value[index] = enrichedStream;
+                } else {
+                    liveStreams.value.unshift(enrichedStream);
+                }
+                if (currentStream.value && currentStream.value.id === change.streamId) {
+                    currentStream.value = enrichStream({...change.stream, viewerCount: currentStream.value.viewerCount});
+                }
+                break;
+            }
+            case 'ENDED':
+                if (index !== -1) {
+                    liveStreams.value.splice(index, 1);
+                }
+                if (currentStream.value && currentStream.value.id === change.streamId) {
+                    currentStream.value.isLive = false;
+                    currentStream.value.endedAt = new Date().toISOString();
+                }
+                break;
+            case 'VIEWERS':
+                if (index !== -1) {
+                    liveStreams.value[index].viewerCount = change.viewerCount;
+                }
+                if (currentStream.value && currentStream.value.id === change.streamId) {
+                    currentStream.value.viewerCount = change.viewerCount;
+                }
+                break;
+        }
+    }
+
+    function subscribeToStreamEvents() {
+        eventSubscribers++;
+        if (eventSource) return;
+
+        eventSource = new EventSource(`${ApiClient.instance.basePath}/streams/events`);
+        eventSource.onopen = () => {
+            // Changes made while disconnected are not replayed, resync the list on every (re)connect.
+            fetchLiveStreams().catch(() => {});
+        };
+        eventSource.addEventListener('changes', (event) => {
+            try {
+                JSON.parse(event.data).forEach(applyStreamChange);
+            } catch (err) {
+                console.error('Не удалось обработать событие стримов:', err);
+            }
+        });
+    }
+
+    function unsubscribeFromStreamEvents() {
+        eventSubscribers = Math.max(0, eventSubscribers - 1);
+        if (eventSubscribers === 0 && eventSource) {
+            eventSource.close();
+            eventSource = null;
+        }
+    }
+
     function setActiveStream(stream) {
         if (!stream) return;
 
@@ -307,6 +393,9 @@ export const useStreamStore = defineStore('stream', () => {
         updateStream,
         endStream,
         searchStreams,
+        sendViewerHeartbeat,
+        subscribeToStreamEvents,
+        unsubscribeFromStreamEvents,
         setActiveStream,
     };
 });
\ No newline at end of file
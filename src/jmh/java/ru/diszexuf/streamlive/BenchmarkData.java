@@ -0,0 +1,73 @@
+package ru.diszexuf.streamlive;
+
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.user.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic fixtures shared by the benchmarks: the same seed always yields the same streams.
+ * Titles, descriptions and tags come from {@link SyntheticText}.
+ */
+public final class BenchmarkData {
+
+  private BenchmarkData() {
+  }
+
+  public static List<Stream> streams(int count, long seed) {
+    Random random = new Random(seed);
+    LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+    List<Stream> streams = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      User user = User.builder()
+          .id(new UUID(seed, i))
+          .username("streamer" + i)
+          .streamKey(new UUID(random.nextLong(), random.nextLong()))
+          .followerCount(random.nextInt(100_000))
+          .build();
+      streams.add(Stream.builder()
+          .id(new UUID(random.nextLong(), random.nextLong()))
+          .user(user)
+          .title(SyntheticText.words(random, 6))
+          .description(SyntheticText.words(random, 20))
+          .thumbnailUrl("http://127.0.0.1:8080/uploads/thumbnails/" + Long.toHexString(random.nextLong()) + ".jpg")
+          .tags(SyntheticText.tags(random))
+          .isLive(true)
+          .viewersCount(random.nextInt(50_000))
+          .startedAt(now.minusSeconds(random.nextInt(86_400)))
+          .build());
+    }
+    return streams;
+  }
+
+  public static List<StreamResponseDto> streamDtos(int count, long seed) {
+    Random random = new Random(seed);
+    List<StreamResponseDto> dtos = new ArrayList<>(count);
+    for (Stream stream : streams(count, seed)) {
+      Map<String, String> variants = new HashMap<>();
+      for (int width : new int[]{320, 640, 1280}) {
+        variants.put(String.valueOf(width), stream.getThumbnailUrl().replace(".jpg", "-w" + width + ".jpg"));
+      }
+      dtos.add(new StreamResponseDto()
+          .id(stream.getId())
+          .userId(stream.getUser().getId())
+          .title(stream.getTitle())
+          .description(stream.getDescription())
+          .thumbnailUrl(stream.getThumbnailUrl())
+          .thumbnailVariants(variants)
+          .tags(new ArrayList<>(stream.getTags()))
+          .isLive(true)
+          .startedAt(stream.getStartedAt().atOffset(ZoneOffset.UTC))
+          .viewerCount(random.nextInt(50_000)));
+    }
+    return dtos;
+  }
+}
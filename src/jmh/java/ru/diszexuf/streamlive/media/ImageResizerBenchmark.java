@@ -0,0 +1,52 @@
+package ru.diszexuf.streamlive.media;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derivatives per second a single worker thread produces from a 1920x1080 upload, i.e. the
+ * throughput of one core of the derivative pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class ImageResizerBenchmark {
+
+  @Param({"320", "640", "1280"})
+  private int width;
+
+  private BufferedImage source;
+
+  @Setup
+  public void setUp() {
+    source = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_ARGB);
+    Random random = new Random(42);
+    for (int y = 0; y < source.getHeight(); y++) {
+      for (int x = 0; x < source.getWidth(); x++) {
+        int noise = random.nextInt(32);
+        source.setRGB(x, y, 0xFF000000 | ((x * 255 / 1920 + noise) & 0xFF) << 16 | ((y * 255 / 1080) & 0xFF) << 8 | noise);
+      }
+    }
+  }
+
+  @Benchmark
+  public int resizeAndEncode() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+    ImageResizer.writeJpeg(ImageResizer.resize(source, width), 0.8f, output);
+    return output.size();
+  }
+}
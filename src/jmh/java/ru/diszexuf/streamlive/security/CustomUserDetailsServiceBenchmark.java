@@ -0,0 +1,90 @@
+package ru.diszexuf.streamlive.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import ru.diszexuf.streamlive.StreamLiveApplication;
+import ru.diszexuf.streamlive.user.Authority;
+import ru.diszexuf.streamlive.user.User;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Principal lookup done by the JWT filter on every authenticated request, against the application
+ * context running on an in-memory H2 database: a hit in the principal cache, and a miss that goes
+ * through {@link UserRepository#findByUsername} with the authorities collection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomUserDetailsServiceBenchmark {
+
+  private static final int USERS = 10_000;
+
+  private ConfigurableApplicationContext context;
+  private CustomUserDetailsService userDetailsService;
+  private String[] usernames;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(StreamLiveApplication.class)
+        .run(
+            "--spring.datasource.url=jdbc:h2:mem:jmh;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.docker.compose.enabled=false",
+            "--server.port=0",
+            "--logging.level.root=WARN");
+    userDetailsService = context.getBean(CustomUserDetailsService.class);
+
+    List<User> users = new ArrayList<>(USERS);
+    usernames = new String[USERS];
+    for (int i = 0; i < USERS; i++) {
+      usernames[i] = "user" + i;
+      users.add(User.builder()
+          .username(usernames[i])
+          .email(usernames[i] + "@example.com")
+          .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchma")
+          .streamKey(UUID.randomUUID())
+          .followerCount(0)
+          .enabled(true)
+          .authorities(Set.of(Authority.ROLE_VIEWER))
+          .build());
+    }
+    context.getBean(UserRepository.class).saveAll(users);
+    for (String username : usernames) {
+      userDetailsService.loadUserByUsername(username);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public UserDetails cachedLookup() {
+    return userDetailsService.loadUserByUsername(usernames[ThreadLocalRandom.current().nextInt(USERS)]);
+  }
+
+  @Benchmark
+  public UserDetails databaseLookup() {
+    String username = usernames[ThreadLocalRandom.current().nextInt(USERS)];
+    userDetailsService.evict(username);
+    return userDetailsService.loadUserByUsername(username);
+  }
+}
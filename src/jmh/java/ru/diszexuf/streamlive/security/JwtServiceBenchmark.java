@@ -0,0 +1,74 @@
+package ru.diszexuf.streamlive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the former filter path (three parses with a
+ * fresh parser each), one parse with the prebuilt parser, and a hit in the verified-token cache.
+ * Issuing a token on login is measured alongside.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtServiceBenchmark {
+
+  private SecretKey secretKey;
+  private JwtService jwtService;
+  private String token;
+  private UserDetails principal;
+
+  @Setup
+  public void setUp() {
+    secretKey = Keys.hmacShaKeyFor("my-secret-key-12345-my-secret-key-12345".getBytes());
+    jwtService = new JwtService(10_000);
+    principal = User.withUsername("benchmark").password("").build();
+    token = jwtService.generateToken(principal);
+    jwtService.verify(token);
+  }
+
+  @Benchmark
+  public String generate() {
+    return jwtService.generateToken(principal);
+  }
+
+  @Benchmark
+  public void tripleParse(Blackhole blackhole) {
+    blackhole.consume(legacyClaims().getSubject());
+    blackhole.consume(legacyClaims().getSubject());
+    blackhole.consume(legacyClaims().getExpiration().before(new Date()));
+  }
+
+  @Benchmark
+  public VerifiedToken singleParse() {
+    return jwtService.parse(token);
+  }
+
+  @Benchmark
+  public VerifiedToken cachedVerify() {
+    return jwtService.verify(token);
+  }
+
+  private Claims legacyClaims() {
+    return Jwts.parserBuilder()
+        .setSigningKey(secretKey)
+        .build()
+        .parseClaimsJws(token)
+        .getBody();
+  }
+}
@@ -0,0 +1,44 @@
+package ru.diszexuf.streamlive.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.diszexuf.streamlive.BenchmarkData;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the live list body with an ObjectMapper configured like the one Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamJsonBenchmark {
+
+  @Param({"20", "100", "1000"})
+  private int size;
+
+  private ObjectMapper objectMapper;
+  private List<StreamResponseDto> streams;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    streams = BenchmarkData.streamDtos(size, 42);
+  }
+
+  @Benchmark
+  public byte[] serializeLiveList() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(streams);
+  }
+}
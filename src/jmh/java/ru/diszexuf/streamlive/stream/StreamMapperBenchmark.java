@@ -0,0 +1,60 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.diszexuf.streamlive.BenchmarkData;
+import ru.diszexuf.streamlive.media.ImageDerivatives;
+import ru.diszexuf.streamlive.media.MediaStorage;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a page of streams, including the thumbnail variant and live viewer count
+ * lookups. The viewer counter is never flushed here, so it needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamMapperBenchmark {
+
+  @Param({"20", "100"})
+  private int size;
+
+  private ImageDerivatives imageDerivatives;
+  private StreamMapper streamMapper;
+  private List<Stream> streams;
+
+  @Setup
+  public void setUp() throws IOException {
+    Path root = Files.createTempDirectory("jmh-media");
+    MediaStorage mediaStorage = new MediaStorage(root, "http://127.0.0.1:8080", event -> {
+    });
+    imageDerivatives = new ImageDerivatives(mediaStorage, event -> {
+    }, 1, 1, 0.8f, 40_000_000L);
+    streamMapper = new StreamMapperImpl(imageDerivatives, new ViewerCounter(null, event -> {
+    }));
+    streams = BenchmarkData.streams(size, 42);
+  }
+
+  @TearDown
+  public void tearDown() {
+    imageDerivatives.shutdown();
+  }
+
+  @Benchmark
+  public List<StreamResponseDto> toDtos() {
+    return streamMapper.toDtos(streams);
+  }
+}
@@ -0,0 +1,67 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.diszexuf.streamlive.SyntheticText;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a stream search against the in-memory indexes: a title word resolved through
+ * trigrams, a two-letter word resolved through the token dictionary, and a tag filter combined
+ * with text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamSearchBenchmark {
+
+  private static final int PAGE = 21;
+
+  @Param({"10000", "100000"})
+  private int streams;
+
+  private StreamSearchIndex searchIndex;
+  private StreamTagIndex tagIndex;
+  private TagQuery tagQuery;
+
+  @Setup
+  public void setUp() {
+    searchIndex = new StreamSearchIndex();
+    tagIndex = new StreamTagIndex();
+    Random random = new Random(42);
+    for (int i = 0; i < streams; i++) {
+      UUID id = new UUID(random.nextLong(), random.nextLong());
+      searchIndex.put(id, SyntheticText.words(random, 6), SyntheticText.words(random, 20),
+          random.nextInt(10) == 0, LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(i));
+      tagIndex.index(id, SyntheticText.tags(random));
+    }
+    tagQuery = TagQuery.parse("#gaming|#esports -#mature speedrun");
+  }
+
+  @Benchmark
+  public List<UUID> titleWord() {
+    return searchIndex.search("marathon", KeysetCursor.FIRST, PAGE);
+  }
+
+  @Benchmark
+  public List<UUID> shortWord() {
+    return searchIndex.search("go", KeysetCursor.FIRST, PAGE);
+  }
+
+  @Benchmark
+  public List<UUID> tagsAndText() {
+    return searchIndex.search(tagQuery.text(), tagIndex.match(tagQuery), KeysetCursor.FIRST, PAGE);
+  }
+}
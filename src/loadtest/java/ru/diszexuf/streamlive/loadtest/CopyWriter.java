@@ -0,0 +1,84 @@
+package ru.diszexuf.streamlive.loadtest;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one {@code COPY ... FROM STDIN} in PostgreSQL's text format, flushing the
+ * encoded rows to the server every {@value #FLUSH_BYTES} bytes.
+ */
+final class CopyWriter implements AutoCloseable {
+
+  private static final int FLUSH_BYTES = 1 << 20;
+
+  private final CopyIn copyIn;
+  private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+  private boolean firstField = true;
+  private long rows;
+
+  CopyWriter(CopyManager copyManager, String table, String columns) throws SQLException {
+    this.copyIn = copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN");
+  }
+
+  CopyWriter field(Object value) {
+    separate();
+    if (value == null) {
+      buffer.append("\\N");
+    } else if (value instanceof String text) {
+      escape(text);
+    } else {
+      buffer.append(value);
+    }
+    return this;
+  }
+
+  void endRow() throws SQLException {
+    buffer.append('\n');
+    firstField = true;
+    rows++;
+    if (buffer.length() >= FLUSH_BYTES) {
+      flush();
+    }
+  }
+
+  long rows() {
+    return rows;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    flush();
+    copyIn.endCopy();
+  }
+
+  private void flush() throws SQLException {
+    if (!buffer.isEmpty()) {
+      byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+      copyIn.writeToCopy(bytes, 0, bytes.length);
+      buffer.setLength(0);
+    }
+  }
+
+  private void separate() {
+    if (!firstField) {
+      buffer.append('\t');
+    }
+    firstField = false;
+  }
+
+  private void escape(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\\' -> buffer.append("\\\\");
+        case '\t' -> buffer.append("\\t");
+        case '\n' -> buffer.append("\\n");
+        case '\r' -> buffer.append("\\r");
+        default -> buffer.append(c);
+      }
+    }
+  }
+}
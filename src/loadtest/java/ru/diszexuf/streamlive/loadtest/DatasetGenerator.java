@@ -0,0 +1,312 @@
+package ru.diszexuf.streamlive.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.diszexuf.streamlive.SyntheticText;
+import ru.diszexuf.streamlive.user.Authority;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk-loads a synthetic dataset of users, streams, tags and follows into PostgreSQL with
+ * {@code COPY}, bypassing JPA entirely.
+ * <p>
+ * Channel popularity follows a Zipf distribution: follows and streams pick their channel with
+ * {@link ZipfSampler}, so {@code user0} has the most followers and streams and the tail is long.
+ * Each user follows an exponentially distributed number of distinct channels; follower counts are
+ * computed in a first pass over the same random sequence so {@code users.follower_count} matches the
+ * {@code follows} rows. A user has at most one live stream, and live viewer counts scale with
+ * followers. The output depends only on the seed, the sizes and {@code --now}, which defaults to the
+ * start of the current UTC day.
+ * <p>
+ * The schema must already exist: start the application once against the database with
+ * {@code --spring.jpa.hibernate.ddl-auto=update}, and keep that setting afterwards, since the default
+ * {@code create-drop} would drop the generated data again. Every user gets the password
+ * {@code --user-password}.
+ * <pre>
+ * ./gradlew generateDataset -PdatasetArgs='--users=2000000 --streams=20000000 --follows=40000000 --truncate=true'
+ * </pre>
+ */
+public final class DatasetGenerator {
+
+  private static final int MAX_FOLLOWING = 5_000;
+  private static final long USERS_STREAM = 1;
+  private static final long STREAMS_STREAM = 2;
+  private static final long FOLLOWS_STREAM = 3;
+  private static final long FOLLOW_ROWS_STREAM = 4;
+
+  private final Options options;
+  private final CopyManager copyManager;
+  private final LocalDateTime now;
+
+  private DatasetGenerator(Options options, CopyManager copyManager) {
+    this.options = options;
+    this.copyManager = copyManager;
+    this.now = options.now;
+  }
+
+  public static void main(String[] args) throws SQLException {
+    Options options = Options.parse(args);
+    try (Connection connection = DriverManager.getConnection(options.url, options.username, options.password)) {
+      prepare(connection, options.truncate);
+      new DatasetGenerator(options, connection.unwrap(PGConnection.class).getCopyAPI()).generate();
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("ANALYZE users, users_authorities, streams, stream_tags, follows");
+      }
+    }
+  }
+
+  private static void prepare(Connection connection, boolean truncate) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      if (truncate) {
+        statement.execute("TRUNCATE users, users_authorities, streams, stream_tags, follows, notifications CASCADE");
+        return;
+      }
+      try (ResultSet rows = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM users)")) {
+        rows.next();
+        if (rows.getBoolean(1)) {
+          throw new IllegalStateException("Database already contains users; pass --truncate=true to replace them");
+        }
+      }
+    }
+  }
+
+  private void generate() throws SQLException {
+    long startedAt = System.nanoTime();
+    int[] followerCounts = new int[options.users];
+    long follows = forEachFollow((follower, following) -> followerCounts[following]++);
+    System.out.printf("Planned %d follows in %.1f s%n", follows, seconds(startedAt));
+
+    copyUsers(followerCounts);
+    copyStreams(followerCounts);
+    copyFollows();
+    System.out.printf("Dataset generated in %.1f s%n", seconds(startedAt));
+  }
+
+  private void copyUsers(int[] followerCounts) throws SQLException {
+    long startedAt = System.nanoTime();
+    Random random = random(USERS_STREAM);
+    String password = new BCryptPasswordEncoder().encode(options.userPassword);
+    long rows;
+    try (CopyWriter users = new CopyWriter(copyManager, "users",
+        "id, username, email, password, bio, stream_key, follower_count, enabled, last_login_at, created_at, updated_at, version")) {
+      for (int i = 0; i < options.users; i++) {
+        LocalDateTime createdAt = now.minusSeconds(random.nextInt(3 * 365 * 86_400));
+        users.field(userId(i))
+            .field("user" + i)
+            .field("user" + i + "@example.com")
+            .field(password)
+            .field(random.nextInt(4) == 0 ? SyntheticText.words(random, 12) : null)
+            .field(new UUID(random.nextLong(), random.nextLong()))
+            .field(followerCounts[i])
+            .field(true)
+            .field(now.minusSeconds(random.nextInt(30 * 86_400)))
+            .field(createdAt)
+            .field(createdAt)
+            .field(0)
+            .endRow();
+      }
+      rows = users.rows();
+    }
+    try (CopyWriter authorities = new CopyWriter(copyManager, "users_authorities", "user_id, authority")) {
+      for (int i = 0; i < options.users; i++) {
+        authorities.field(userId(i)).field(Authority.ROLE_VIEWER.ordinal()).endRow();
+        if (followerCounts[i] > 0) {
+          authorities.field(userId(i)).field(Authority.ROLE_STREAMER.ordinal()).endRow();
+        }
+      }
+      rows += authorities.rows();
+    }
+    report("users", rows, startedAt);
+  }
+
+  /**
+   * A connection runs one {@code COPY} at a time, so streams and their tags are written in two
+   * passes over the same generated sequence.
+   */
+  private void copyStreams(int[] followerCounts) throws SQLException {
+    long startedAt = System.nanoTime();
+    long rows;
+    try (CopyWriter streams = new CopyWriter(copyManager, "streams",
+        "id, user_id, title, description, thumbnail_url, is_live, viewers_count, started_at, ended_at, created_at, updated_at, version")) {
+      forEachStream(followerCounts, stream -> streams.field(stream.id())
+          .field(userId(stream.owner()))
+          .field(stream.title())
+          .field(stream.description())
+          .field(stream.thumbnailUrl())
+          .field(stream.live())
+          .field(stream.viewers())
+          .field(stream.startedAt())
+          .field(stream.endedAt())
+          .field(stream.startedAt())
+          .field(stream.endedAt() == null ? stream.startedAt() : stream.endedAt())
+          .field(0)
+          .endRow());
+      rows = streams.rows();
+    }
+    try (CopyWriter tags = new CopyWriter(copyManager, "stream_tags", "stream_id, tag")) {
+      forEachStream(followerCounts, stream -> {
+        for (String tag : stream.tags()) {
+          tags.field(stream.id()).field(tag).endRow();
+        }
+      });
+      rows += tags.rows();
+    }
+    report("streams", rows, startedAt);
+  }
+
+  private void copyFollows() throws SQLException {
+    long startedAt = System.nanoTime();
+    Random random = random(FOLLOW_ROWS_STREAM);
+    try (CopyWriter follows = new CopyWriter(copyManager, "follows",
+        "id, follower_id, following_id, created_at, updated_at, version")) {
+      forEachFollow((follower, following) -> {
+        LocalDateTime createdAt = now.minusSeconds(random.nextInt(2 * 365 * 86_400));
+        follows.field(new UUID(random.nextLong(), random.nextLong()))
+            .field(userId(follower))
+            .field(userId(following))
+            .field(createdAt)
+            .field(createdAt)
+            .field(0)
+            .endRow();
+      });
+      report("follows", follows.rows(), startedAt);
+    }
+  }
+
+  /**
+   * Replays the same streams on every call. Channels are Zipf-distributed; a channel that already
+   * has a live stream only gets ended ones.
+   */
+  private void forEachStream(int[] followerCounts, RowConsumer<GeneratedStream> consumer) throws SQLException {
+    Random random = random(STREAMS_STREAM);
+    ZipfSampler channels = new ZipfSampler(options.users, options.zipfExponent);
+    double liveProbability = options.streams == 0 ? 0 : (double) options.live / options.streams;
+    BitSet live = new BitSet(options.users);
+    for (long i = 0; i < options.streams; i++) {
+      UUID id = new UUID(random.nextLong(), random.nextLong());
+      int owner = (int) channels.sample(random);
+      boolean isLive = random.nextDouble() < liveProbability && !live.get(owner);
+      LocalDateTime startedAt;
+      LocalDateTime endedAt;
+      int viewers;
+      if (isLive) {
+        live.set(owner);
+        startedAt = now.minusSeconds(random.nextInt(8 * 3600));
+        endedAt = null;
+        viewers = (int) (followerCounts[owner] * random.nextDouble() * 0.2) + random.nextInt(10);
+      } else {
+        startedAt = now.minusSeconds(600 + random.nextInt(2 * 365 * 86_400));
+        endedAt = startedAt.plusSeconds(900 + random.nextInt(6 * 3600));
+        viewers = 0;
+      }
+      consumer.accept(new GeneratedStream(id, owner,
+          SyntheticText.words(random, 3 + random.nextInt(6)),
+          random.nextInt(3) == 0 ? null : SyntheticText.words(random, 5 + random.nextInt(15)),
+          "http://127.0.0.1:8080/uploads/thumbnails/" + Long.toHexString(random.nextLong()) + ".jpg",
+          isLive, viewers, startedAt, endedAt, SyntheticText.tags(random)));
+    }
+  }
+
+  /**
+   * Replays the same follow edges on every call: each user follows a distinct set of other users,
+   * with the set size exponentially distributed around the requested average.
+   */
+  private long forEachFollow(FollowConsumer consumer) throws SQLException {
+    Random random = random(FOLLOWS_STREAM);
+    ZipfSampler channels = new ZipfSampler(options.users, options.zipfExponent);
+    double mean = (double) options.follows / options.users;
+    int cap = Math.min(MAX_FOLLOWING, options.users - 1);
+    Set<Integer> followed = new HashSet<>();
+    long edges = 0;
+    for (int follower = 0; follower < options.users; follower++) {
+      int degree = (int) Math.min(-mean * Math.log(1 - random.nextDouble()), cap);
+      followed.clear();
+      for (int attempt = 0; followed.size() < degree && attempt < degree * 4; attempt++) {
+        int following = (int) channels.sample(random);
+        if (following != follower && followed.add(following)) {
+          consumer.accept(follower, following);
+          edges++;
+        }
+      }
+    }
+    return edges;
+  }
+
+  private UUID userId(int index) {
+    return new UUID(options.seed, index);
+  }
+
+  private Random random(long stream) {
+    return new Random(options.seed * 1_000_003 + stream);
+  }
+
+  private static void report(String table, long rows, long startedAt) {
+    double seconds = seconds(startedAt);
+    System.out.printf("%-8s %,12d rows in %6.1f s (%,.0f rows/s)%n", table, rows, seconds, rows / seconds);
+  }
+
+  private static double seconds(long startedAt) {
+    return (System.nanoTime() - startedAt) / 1e9;
+  }
+
+  @FunctionalInterface
+  private interface FollowConsumer {
+    void accept(int follower, int following) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface RowConsumer<T> {
+    void accept(T row) throws SQLException;
+  }
+
+  private record GeneratedStream(UUID id, int owner, String title, String description, String thumbnailUrl,
+                                 boolean live, int viewers, LocalDateTime startedAt, LocalDateTime endedAt,
+                                 Set<String> tags) {
+  }
+
+  private record Options(String url, String username, String password, long seed, int users, long streams,
+                         long follows, long live, double zipfExponent, String userPassword, LocalDateTime now,
+                         boolean truncate) {
+
+    static Options parse(String[] args) {
+      Map<String, String> values = new LinkedHashMap<>();
+      for (String arg : args) {
+        if (!arg.startsWith("--") || !arg.contains("=")) {
+          throw new IllegalArgumentException("Expected --name=value, got " + arg);
+        }
+        values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+      }
+      return new Options(
+          values.getOrDefault("url", "jdbc:postgresql://localhost:5432/streamlive"),
+          values.getOrDefault("username", "postgres"),
+          values.getOrDefault("password", "postgres"),
+          Long.parseLong(values.getOrDefault("seed", "1")),
+          Integer.parseInt(values.getOrDefault("users", "1000000")),
+          Long.parseLong(values.getOrDefault("streams", "10000000")),
+          Long.parseLong(values.getOrDefault("follows", "20000000")),
+          Long.parseLong(values.getOrDefault("live", "20000")),
+          Double.parseDouble(values.getOrDefault("zipf-exponent", "1.0")),
+          values.getOrDefault("user-password", "password"),
+          values.containsKey("now")
+              ? LocalDateTime.parse(values.get("now"))
+              : LocalDate.now(ZoneOffset.UTC).atStartOfDay(),
+          Boolean.parseBoolean(values.getOrDefault("truncate", "false")));
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package ru.diszexuf.streamlive.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint as seen by one virtual user. Not thread-safe: every virtual user keeps
+ * its own recorders and they are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+  private long[] nanos = new long[1024];
+  private int size;
+  private long errors;
+
+  void record(long latencyNanos) {
+    if (size == nanos.length) {
+      nanos = Arrays.copyOf(nanos, size * 2);
+    }
+    nanos[size++] = latencyNanos;
+  }
+
+  void error() {
+    errors++;
+  }
+
+  void mergeInto(LatencyRecorder target) {
+    for (int i = 0; i < size; i++) {
+      target.record(nanos[i]);
+    }
+    target.errors += errors;
+  }
+
+  Summary summarize(String endpoint, double seconds) {
+    long[] sorted = Arrays.copyOf(nanos, size);
+    Arrays.sort(sorted);
+    return new Summary(endpoint, size, errors, seconds > 0 ? size / seconds : 0,
+        millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 0.999), size == 0 ? 0 : sorted[size - 1] / 1e6);
+  }
+
+  private static double millis(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(index, 0)] / 1e6;
+  }
+
+  record Summary(String endpoint, long requests, long errors, double throughput,
+                 double p50, double p99, double p999, double max) {
+  }
+}
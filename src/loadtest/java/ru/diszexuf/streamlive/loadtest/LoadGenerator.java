@@ -0,0 +1,353 @@
+package ru.diszexuf.streamlive.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.diszexuf.streamlive.StreamLiveApplication;
+import ru.diszexuf.streamlive.SyntheticText;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator: every virtual user is a virtual thread that logs in as one of
+ * the seeded users and then sends requests back to back, picking each from a weighted mix of
+ * login, live list, search, stream by id and avatar upload.
+ * <p>
+ * Without {@code --target} the application is started in this JVM with the {@code loadtest}
+ * profile, plus any listed in {@code --profiles}, on a random port. Requests sent during the
+ * warm-up are not recorded. Latency percentiles and throughput per endpoint are printed and written
+ * as JSON to {@code --output}.
+ * <pre>
+ * ./gradlew loadtest -PloadtestArgs='--duration=PT2M --warmup=PT20S --concurrency=200'
+ * ./gradlew loadtest -PloadtestArgs='--profiles=virtual --duration=PT2M --concurrency=200'
+ * ./gradlew loadtest -PloadtestArgs='--target=http://staging:8080 --users=50000'
+ * </pre>
+ */
+public final class LoadGenerator {
+
+  private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final int IMAGES = 16;
+
+  enum Endpoint {
+    LOGIN("POST /api/sessions", 5),
+    LIVE("GET /api/streams/live", 35),
+    SEARCH("GET /api/streams/search", 25),
+    STREAM_BY_ID("GET /api/streams/{id}", 30),
+    UPLOAD("PUT /api/users/me", 5);
+
+    private final String label;
+    private final int weight;
+
+    Endpoint(String label, int weight) {
+      this.label = label;
+      this.weight = weight;
+    }
+  }
+
+  private final Options options;
+  private final URI target;
+  private final HttpClient client;
+  private final List<byte[]> images;
+  private final int totalWeight;
+  private volatile long measureFrom;
+  private volatile long stopAt;
+
+  private LoadGenerator(Options options, URI target, HttpClient client) {
+    this.options = options;
+    this.target = target;
+    this.client = client;
+    this.images = images(IMAGES);
+    int weights = 0;
+    for (Endpoint endpoint : Endpoint.values()) {
+      weights += endpoint.weight;
+    }
+    this.totalWeight = weights;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options = Options.parse(args);
+    ConfigurableApplicationContext context = null;
+    String target = options.target;
+    if (target == null) {
+      context = new SpringApplicationBuilder(StreamLiveApplication.class)
+          .profiles(options.profiles)
+          .run("--server.port=0");
+      target = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+    }
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      HttpClient client = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(5))
+          .executor(executor)
+          .build();
+      new LoadGenerator(options, URI.create(target), client).run(executor);
+    } finally {
+      if (context != null) {
+        context.close();
+      }
+    }
+  }
+
+  private void run(ExecutorService executor) throws Exception {
+    System.out.printf("Driving %s with %d virtual users for %s after a %s warm-up%n",
+        target, options.concurrency, options.duration, options.warmup);
+    long startedAt = System.nanoTime();
+    measureFrom = startedAt + options.warmup.toNanos();
+    stopAt = measureFrom + options.duration.toNanos();
+
+    List<Future<Map<Endpoint, LatencyRecorder>>> users = new ArrayList<>(options.concurrency);
+    for (int i = 0; i < options.concurrency; i++) {
+      int index = i;
+      users.add(executor.submit(() -> virtualUser(index)));
+    }
+    Map<Endpoint, LatencyRecorder> merged = recorders();
+    for (Future<Map<Endpoint, LatencyRecorder>> user : users) {
+      user.get().forEach((endpoint, recorder) -> recorder.mergeInto(merged.get(endpoint)));
+    }
+    report(merged, options.duration.toNanos() / 1e9);
+  }
+
+  private Map<Endpoint, LatencyRecorder> virtualUser(int index) throws InterruptedException {
+    Map<Endpoint, LatencyRecorder> recorders = recorders();
+    SplittableRandom random = new SplittableRandom(index);
+    int userIndex = index % options.users;
+    String token = null;
+    List<String> streamIds = new ArrayList<>();
+
+    while (System.nanoTime() < stopAt) {
+      Endpoint endpoint = token == null ? Endpoint.LOGIN : pick(random);
+      if (endpoint == Endpoint.STREAM_BY_ID && streamIds.isEmpty()) {
+        endpoint = Endpoint.LIVE;
+      }
+      HttpRequest request = request(endpoint, random, userIndex, token, streamIds);
+      long start = System.nanoTime();
+      HttpResponse<byte[]> response;
+      try {
+        response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+      } catch (IOException e) {
+        response = null;
+      }
+      long latency = System.nanoTime() - start;
+
+      boolean ok = response != null && response.statusCode() < 400;
+      if (start >= measureFrom) {
+        if (ok) {
+          recorders.get(endpoint).record(latency);
+        } else {
+          recorders.get(endpoint).error();
+        }
+      }
+      if (ok && endpoint == Endpoint.LOGIN) {
+        token = field(response.body(), "token");
+      } else if (ok && endpoint == Endpoint.LIVE && response.statusCode() == 200 && streamIds.isEmpty()) {
+        streamIds.addAll(ids(response.body()));
+      }
+    }
+    return recorders;
+  }
+
+  private HttpRequest request(Endpoint endpoint, SplittableRandom random, int userIndex, String token,
+                              List<String> streamIds) {
+    return switch (endpoint) {
+      case LOGIN -> HttpRequest.newBuilder(target.resolve("/api/sessions"))
+          .timeout(REQUEST_TIMEOUT)
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(json(Map.of(
+              "username", LoadTestSeeder.username(userIndex),
+              "password", options.password))))
+          .build();
+      case LIVE -> get("/api/streams/live");
+      case SEARCH -> get("/api/streams/search?query=" + URLEncoder.encode(query(random), StandardCharsets.UTF_8));
+      case STREAM_BY_ID -> get("/api/streams/" + streamIds.get(random.nextInt(streamIds.size())));
+      case UPLOAD -> {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        byte[] body = multipart(boundary, LoadTestSeeder.email(userIndex), "Load test user " + userIndex,
+            images.get(random.nextInt(images.size())));
+        yield HttpRequest.newBuilder(target.resolve("/api/users/me"))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+      }
+    };
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(target.resolve(path))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Accept", "application/json")
+        .GET()
+        .build();
+  }
+
+  private Endpoint pick(SplittableRandom random) {
+    int roll = random.nextInt(totalWeight);
+    for (Endpoint endpoint : Endpoint.values()) {
+      roll -= endpoint.weight;
+      if (roll < 0) {
+        return endpoint;
+      }
+    }
+    return Endpoint.LIVE;
+  }
+
+  private void report(Map<Endpoint, LatencyRecorder> recorders, double seconds) throws IOException {
+    List<LatencyRecorder.Summary> summaries = new ArrayList<>();
+    LatencyRecorder total = new LatencyRecorder();
+    for (Map.Entry<Endpoint, LatencyRecorder> entry : recorders.entrySet()) {
+      summaries.add(entry.getValue().summarize(entry.getKey().label, seconds));
+      entry.getValue().mergeInto(total);
+    }
+    summaries.add(total.summarize("total", seconds));
+
+    System.out.printf("%n%-26s %10s %8s %10s %10s %10s %10s %10s%n",
+        "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    for (LatencyRecorder.Summary summary : summaries) {
+      System.out.printf("%-26s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+          summary.endpoint(), summary.requests(), summary.errors(), summary.throughput(),
+          summary.p50(), summary.p99(), summary.p999(), summary.max());
+    }
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("target", target.toString());
+    result.put("profiles", options.profiles);
+    result.put("concurrency", options.concurrency);
+    result.put("durationSeconds", seconds);
+    result.put("endpoints", summaries);
+    Files.createDirectories(options.output.toAbsolutePath().getParent());
+    JSON.writeValue(options.output.toFile(), result);
+    System.out.printf("%nResults written to %s%n", options.output);
+  }
+
+  private static Map<Endpoint, LatencyRecorder> recorders() {
+    Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+    for (Endpoint endpoint : Endpoint.values()) {
+      recorders.put(endpoint, new LatencyRecorder());
+    }
+    return recorders;
+  }
+
+  private static String query(SplittableRandom random) {
+    String first = SyntheticText.WORDS[random.nextInt(SyntheticText.WORDS.length)];
+    return random.nextInt(3) == 0
+        ? first + " " + SyntheticText.WORDS[random.nextInt(SyntheticText.WORDS.length)]
+        : first;
+  }
+
+  private static byte[] multipart(String boundary, String email, String bio, byte[] avatar) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream(avatar.length + 512);
+    String prefix = "--" + boundary + "\r\n";
+    body.writeBytes((prefix + "Content-Disposition: form-data; name=\"email\"\r\n\r\n" + email + "\r\n")
+        .getBytes(StandardCharsets.UTF_8));
+    body.writeBytes((prefix + "Content-Disposition: form-data; name=\"bio\"\r\n\r\n" + bio + "\r\n")
+        .getBytes(StandardCharsets.UTF_8));
+    body.writeBytes((prefix + "Content-Disposition: form-data; name=\"avatarUrl\"; filename=\"avatar.png\"\r\n"
+        + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+    body.writeBytes(avatar);
+    body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+    return body.toByteArray();
+  }
+
+  /**
+   * Distinct noise images, so uploads are hashed and stored rather than all deduplicated into one.
+   */
+  private static List<byte[]> images(int count) {
+    SplittableRandom random = new SplittableRandom(7);
+    List<byte[]> images = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+      for (int y = 0; y < image.getHeight(); y++) {
+        for (int x = 0; x < image.getWidth(); x++) {
+          image.setRGB(x, y, random.nextInt(0x1000000));
+        }
+      }
+      ByteArrayOutputStream png = new ByteArrayOutputStream();
+      try {
+        ImageIO.write(image, "png", png);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      images.add(png.toByteArray());
+    }
+    return images;
+  }
+
+  private static String json(Map<String, String> fields) {
+    try {
+      return JSON.writeValueAsString(fields);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String field(byte[] body, String name) {
+    try {
+      JsonNode value = JSON.readTree(body).get(name);
+      return value == null ? null : value.asText();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private static List<String> ids(byte[] body) {
+    List<String> ids = new ArrayList<>();
+    try {
+      for (JsonNode stream : JSON.readTree(body)) {
+        ids.add(stream.get("id").asText());
+      }
+    } catch (IOException e) {
+      return List.of();
+    }
+    return ids;
+  }
+
+  private record Options(String target, String[] profiles, Duration duration, Duration warmup, int concurrency,
+                         int users, String password, Path output) {
+
+    static Options parse(String[] args) {
+      Map<String, String> values = new LinkedHashMap<>();
+      for (String arg : args) {
+        if (!arg.startsWith("--") || !arg.contains("=")) {
+          throw new IllegalArgumentException("Expected --name=value, got " + arg);
+        }
+        values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+      }
+      return new Options(
+          values.get("target"),
+          ("loadtest," + values.getOrDefault("profiles", "")).split(",+"),
+          Duration.parse(values.getOrDefault("duration", "PT60S")),
+          Duration.parse(values.getOrDefault("warmup", "PT10S")),
+          Integer.parseInt(values.getOrDefault("concurrency", "100")),
+          Integer.parseInt(values.getOrDefault("users", "10000")),
+          values.getOrDefault("password", "loadtest"),
+          Path.of(values.getOrDefault("output", "build/reports/loadtest/results.json")));
+    }
+  }
+}
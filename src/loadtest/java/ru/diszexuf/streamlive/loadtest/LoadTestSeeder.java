@@ -0,0 +1,148 @@
+package ru.diszexuf.streamlive.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import ru.diszexuf.streamlive.SyntheticText;
+import ru.diszexuf.streamlive.user.Authority;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills the load-test database with users and streams.
+ * <p>
+ * Runs as an {@link ApplicationRunner}, which Spring calls before {@code ApplicationReadyEvent}, so
+ * the search, tag, live and follow indexes are rebuilt from the seeded rows. Rows are written with
+ * JDBC batches; every user gets the same password, encoded once. The data is deterministic:
+ * {@code user<n>} owns the {@code n}-th stream, the first {@code live-streams} of which are live.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class LoadTestSeeder implements ApplicationRunner {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final long SEED = 42;
+
+  private static final String INSERT_USER = """
+      INSERT INTO users (id, username, email, password, stream_key, follower_count, enabled, created_at, updated_at, version)
+      VALUES (?, ?, ?, ?, ?, 0, true, ?, ?, 0)""";
+
+  private static final String INSERT_AUTHORITY = "INSERT INTO users_authorities (user_id, authority) VALUES (?, ?)";
+
+  private static final String INSERT_STREAM = """
+      INSERT INTO streams (id, user_id, title, description, thumbnail_url, is_live, viewers_count, started_at, ended_at,
+                           created_at, updated_at, version)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)""";
+
+  private static final String INSERT_TAG = "INSERT INTO stream_tags (stream_id, tag) VALUES (?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PasswordEncoder passwordEncoder;
+  private final int users;
+  private final int liveStreams;
+  private final int endedStreams;
+  private final String password;
+
+  public LoadTestSeeder(JdbcTemplate jdbcTemplate,
+                        PasswordEncoder passwordEncoder,
+                        @Value("${streamlive.loadtest.users}") int users,
+                        @Value("${streamlive.loadtest.live-streams}") int liveStreams,
+                        @Value("${streamlive.loadtest.ended-streams}") int endedStreams,
+                        @Value("${streamlive.loadtest.password}") String password) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.passwordEncoder = passwordEncoder;
+    this.users = users;
+    this.liveStreams = Math.min(liveStreams, users);
+    this.endedStreams = endedStreams;
+    this.password = password;
+  }
+
+  public static String username(int index) {
+    return "user" + index;
+  }
+
+  public static String email(int index) {
+    return username(index) + "@loadtest.local";
+  }
+
+  public static UUID userId(int index) {
+    return new UUID(SEED, index);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long startedAt = System.nanoTime();
+    seedUsers();
+    seedStreams();
+    log.info("Seeded {} users, {} live and {} ended streams in {} ms",
+        users, liveStreams, endedStreams, (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+  private void seedUsers() {
+    String encoded = passwordEncoder.encode(password);
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+    List<Object[]> userRows = new ArrayList<>(BATCH_SIZE);
+    List<Object[]> authorityRows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < users; i++) {
+      UUID id = userId(i);
+      userRows.add(new Object[]{id, username(i), email(i), encoded, UUID.randomUUID(), now, now});
+      authorityRows.add(new Object[]{id, Authority.ROLE_STREAMER.ordinal()});
+      if (userRows.size() == BATCH_SIZE) {
+        flush(INSERT_USER, userRows);
+        flush(INSERT_AUTHORITY, authorityRows);
+      }
+    }
+    flush(INSERT_USER, userRows);
+    flush(INSERT_AUTHORITY, authorityRows);
+  }
+
+  private void seedStreams() {
+    Random random = new Random(SEED);
+    LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    List<Object[]> streamRows = new ArrayList<>(BATCH_SIZE);
+    List<Object[]> tagRows = new ArrayList<>(BATCH_SIZE * 4);
+    int total = liveStreams + endedStreams;
+    for (int i = 0; i < total; i++) {
+      boolean live = i < liveStreams;
+      UUID id = new UUID(random.nextLong(), random.nextLong());
+      UUID owner = userId(live ? i : random.nextInt(users));
+      LocalDateTime startedAt = live
+          ? now.minusSeconds(random.nextInt(6 * 3600))
+          : now.minusDays(1 + random.nextInt(365)).minusSeconds(random.nextInt(86_400));
+      LocalDateTime endedAt = live ? null : startedAt.plusMinutes(30 + random.nextInt(300));
+      streamRows.add(new Object[]{id, owner, SyntheticText.words(random, 6), SyntheticText.words(random, 20),
+          "http://127.0.0.1:8080/uploads/thumbnails/" + Long.toHexString(random.nextLong()) + ".jpg",
+          live, live ? random.nextInt(50_000) : 0, Timestamp.valueOf(startedAt),
+          endedAt == null ? null : Timestamp.valueOf(endedAt), Timestamp.valueOf(startedAt),
+          Timestamp.valueOf(endedAt == null ? startedAt : endedAt)});
+      for (String tag : SyntheticText.tags(random)) {
+        tagRows.add(new Object[]{id, tag});
+      }
+      if (streamRows.size() == BATCH_SIZE) {
+        flush(INSERT_STREAM, streamRows);
+        flush(INSERT_TAG, tagRows);
+      }
+    }
+    flush(INSERT_STREAM, streamRows);
+    flush(INSERT_TAG, tagRows);
+  }
+
+  private void flush(String sql, List<Object[]> rows) {
+    if (!rows.isEmpty()) {
+      jdbcTemplate.batchUpdate(sql, rows);
+      rows.clear();
+    }
+  }
+}
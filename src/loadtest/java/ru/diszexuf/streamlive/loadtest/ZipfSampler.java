@@ -0,0 +1,38 @@
+package ru.diszexuf.streamlive.loadtest;
+
+import java.util.Random;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability roughly proportional to {@code 1 / (rank + 1)^exponent}.
+ * <p>
+ * Inverts the CDF of the continuous power law on {@code [1, n + 1)} instead of the discrete Zipf
+ * distribution, which makes a draw O(1) with no table for any {@code n}. The head is slightly flatter
+ * than exact Zipf; the long tail, which is what the queries care about, has the same shape.
+ */
+final class ZipfSampler {
+
+  private final long n;
+  private final double exponent;
+  private final double span;
+
+  ZipfSampler(long n, double exponent) {
+    if (n < 1 || exponent <= 0) {
+      throw new IllegalArgumentException("n must be positive and exponent greater than 0");
+    }
+    this.n = n;
+    this.exponent = exponent;
+    this.span = isHarmonic() ? Math.log(n + 1.0) : Math.pow(n + 1.0, 1 - exponent) - 1;
+  }
+
+  long sample(Random random) {
+    double u = random.nextDouble();
+    double x = isHarmonic()
+        ? Math.exp(u * span)
+        : Math.pow(u * span + 1, 1 / (1 - exponent));
+    return Math.min((long) x, n) - 1;
+  }
+
+  private boolean isHarmonic() {
+    return Math.abs(exponent - 1) < 1e-9;
+  }
+}
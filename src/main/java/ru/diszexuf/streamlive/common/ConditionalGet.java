@@ -0,0 +1,29 @@
+package ru.diszexuf.streamlive.common;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET for controllers implementing the generated API interfaces, which have no access
+ * to the request. Evaluated before the body is loaded and mapped, so an unchanged resource costs
+ * one validator lookup.
+ */
+public final class ConditionalGet {
+
+  private ConditionalGet() {
+  }
+
+  /**
+   * Checks {@code If-None-Match} (or, without it, {@code If-Modified-Since}) of the current request
+   * against {@code version} and writes {@code ETag} / {@code Last-Modified} to the response.
+   *
+   * @return {@code true} when the client copy is current; the response status is then already 304
+   */
+  public static boolean notModified(ResourceVersion version) {
+    ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+    ServletWebRequest request = new ServletWebRequest(attributes.getRequest(), attributes.getResponse());
+    long lastModified = version.lastModified() == null ? -1 : version.lastModified().toEpochMilli();
+    return request.checkNotModified(version.etag(), lastModified);
+  }
+}
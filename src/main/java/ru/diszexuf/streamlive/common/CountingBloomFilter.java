@@ -0,0 +1,101 @@
+package ru.diszexuf.streamlive.common;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter over strings with 8-bit counters instead of bits, so that values can be removed.
+ * <p>
+ * {@link #mightContain} never answers {@code false} for a value that was added and not removed.
+ * Removing a value that was never added breaks that guarantee, so callers only remove what they
+ * know to be present. A counter that reaches 255 sticks there and is never decremented.
+ * <p>
+ * Reads are lock-free; writes are serialized and published through a volatile field.
+ */
+public final class CountingBloomFilter {
+
+  private static final int MAX_COUNT = 0xFF;
+
+  private final byte[] counters;
+  private final int hashes;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long modifications;
+
+  public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+    long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    this.counters = new byte[(int) Math.min(Math.max(size, 64), Integer.MAX_VALUE - 8)];
+    this.hashes = Math.max(1, (int) Math.round((double) counters.length / expectedInsertions * Math.log(2)));
+  }
+
+  public boolean mightContain(String value) {
+    long ignored = modifications; // volatile read: makes the counters of completed writes visible
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      if (counters[index(h1, h2, i)] == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void add(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    lock.lock();
+    try {
+      for (int i = 0; i < hashes; i++) {
+        int index = index(h1, h2, i);
+        int count = counters[index] & MAX_COUNT;
+        if (count < MAX_COUNT) {
+          counters[index] = (byte) (count + 1);
+        }
+      }
+      modifications++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void remove(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    lock.lock();
+    try {
+      for (int i = 0; i < hashes; i++) {
+        int index = index(h1, h2, i);
+        int count = counters[index] & MAX_COUNT;
+        if (count > 0 && count < MAX_COUNT) {
+          counters[index] = (byte) (count - 1);
+        }
+      }
+      modifications++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int index(int h1, int h2, int i) {
+    return Math.floorMod(h1 + i * h2, counters.length);
+  }
+
+  /**
+   * 64-bit FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mixer; the two halves
+   * drive the double hashing of {@link #index}.
+   */
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
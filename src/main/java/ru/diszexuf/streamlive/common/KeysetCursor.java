@@ -0,0 +1,66 @@
+package ru.diszexuf.streamlive.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Keyset position in a listing ordered by {@code (at, id)} descending, where {@code at} is the
+ * timestamp the listing sorts on. Rows written in one batch share {@code at}, so the id is what
+ * keeps pages apart.
+ * <p>
+ * Stream search additionally ranks live streams first and sets {@code priority} for them; listings
+ * without such a group keep it {@code true}. Clients only ever see the opaque string produced by
+ * {@link #encode()}.
+ */
+public record KeysetCursor(boolean priority, LocalDateTime at, UUID id) {
+
+  public static final KeysetCursor FIRST = new KeysetCursor(
+      true, LocalDateTime.of(9999, 12, 31, 23, 59, 59), new UUID(-1L, -1L));
+
+  /**
+   * Priority entries first, then newest first. Ids compare unsigned, as in Postgres.
+   */
+  public static final Comparator<KeysetCursor> ORDER = Comparator
+      .comparing(KeysetCursor::priority, Comparator.reverseOrder())
+      .thenComparing(KeysetCursor::at, Comparator.nullsLast(Comparator.reverseOrder()))
+      .thenComparing(KeysetCursor::id, (a, b) -> compareUnsigned(b, a));
+
+  private static final String SEPARATOR = "|";
+
+  public static KeysetCursor of(LocalDateTime at, UUID id) {
+    return new KeysetCursor(true, at, id);
+  }
+
+  public static KeysetCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return FIRST;
+    }
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = decoded.split("\\|", 3);
+      return new KeysetCursor(
+          Boolean.parseBoolean(parts[0]),
+          LocalDateTime.parse(parts[1]),
+          UUID.fromString(parts[2]));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+
+  public String encode() {
+    String raw = priority + SEPARATOR + at + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static int compareUnsigned(UUID a, UUID b) {
+    int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+    return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+  }
+}
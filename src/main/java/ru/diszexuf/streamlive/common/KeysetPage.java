@@ -0,0 +1,34 @@
+package ru.diszexuf.streamlive.common;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing; {@code nextCursor} is {@code null} on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+  public static final int DEFAULT_SIZE = 20;
+  public static final int MAX_SIZE = 100;
+
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  public static int size(Integer limit) {
+    if (limit == null) {
+      return DEFAULT_SIZE;
+    }
+    return Math.max(1, Math.min(limit, MAX_SIZE));
+  }
+
+  /**
+   * The items as the response body, with the cursor of the next page in {@code X-Next-Cursor}.
+   */
+  public ResponseEntity<List<T>> toResponse() {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (nextCursor != null) {
+      response.header(NEXT_CURSOR_HEADER, nextCursor);
+    }
+    return response.body(items);
+  }
+}
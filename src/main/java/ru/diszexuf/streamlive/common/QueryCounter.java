@@ -0,0 +1,39 @@
+package ru.diszexuf.streamlive.common;
+
+/**
+ * Per-thread counts of the SQL statements Hibernate prepares and the entities it loads, fed by the
+ * statement inspector and post-load listener registered in {@code MetricsConfig}. Callers take a
+ * {@link #snapshot()} before a unit of work and {@link Snapshot#since() subtract} it afterwards.
+ * Statements sent through {@code JdbcTemplate} are not counted.
+ */
+public final class QueryCounter {
+
+  private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+  private QueryCounter() {
+  }
+
+  public static void statementPrepared() {
+    COUNTS.get()[0]++;
+  }
+
+  public static void entityLoaded() {
+    COUNTS.get()[1]++;
+  }
+
+  public static Snapshot snapshot() {
+    long[] counts = COUNTS.get();
+    return new Snapshot(counts[0], counts[1]);
+  }
+
+  public record Snapshot(long statements, long entityLoads) {
+
+    /**
+     * @return what the current thread did since this snapshot was taken
+     */
+    public Snapshot since() {
+      long[] counts = COUNTS.get();
+      return new Snapshot(counts[0] - statements, counts[1] - entityLoads);
+    }
+  }
+}
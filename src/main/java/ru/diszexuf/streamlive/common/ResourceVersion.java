@@ -0,0 +1,20 @@
+package ru.diszexuf.streamlive.common;
+
+import java.time.Instant;
+
+/**
+ * Validators of a resource representation: a weak ETag and, when known, the last modification time.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+  public static ResourceVersion of(Instant lastModified, Object... parts) {
+    StringBuilder tag = new StringBuilder("W/\"");
+    for (int i = 0; i < parts.length; i++) {
+      if (i > 0) {
+        tag.append('.');
+      }
+      tag.append(parts[i]);
+    }
+    return new ResourceVersion(tag.append('"').toString(), lastModified);
+  }
+}
@@ -0,0 +1,149 @@
+package ru.diszexuf.streamlive.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for large numbers of timeouts that are pushed back far more often than
+ * they fire, such as viewer sessions kept alive by heartbeats.
+ * <p>
+ * Each level has {@value #SLOTS} slots; a slot of level {@code n} spans {@code SLOTS^n} ticks.
+ * Scheduling is O(1), and {@link Timeout#extend} only moves the deadline: the timeout stays in its
+ * slot and is re-filed when that slot comes up. No per-timeout timer or task is ever created.
+ */
+public final class TimingWheel<T> {
+
+  private static final int SLOTS = 64;
+  private static final int SLOT_BITS = 6;
+  private static final int SLOT_MASK = SLOTS - 1;
+
+  private final long tickMillis;
+  private final long origin;
+  private final ArrayDeque<Timeout<T>>[][] wheels;
+  private final ReentrantLock lock = new ReentrantLock();
+  private long currentTick;
+
+  @SuppressWarnings("unchecked")
+  public TimingWheel(long tickMillis, int levels, long nowMillis) {
+    this.tickMillis = tickMillis;
+    this.origin = nowMillis;
+    this.wheels = new ArrayDeque[levels][SLOTS];
+    for (ArrayDeque<Timeout<T>>[] wheel : wheels) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        wheel[slot] = new ArrayDeque<>();
+      }
+    }
+  }
+
+  public Timeout<T> schedule(T value, long deadlineMillis) {
+    Timeout<T> timeout = new Timeout<>(value, deadlineMillis);
+    lock.lock();
+    try {
+      file(timeout);
+    } finally {
+      lock.unlock();
+    }
+    return timeout;
+  }
+
+  /**
+   * Moves the wheel to {@code nowMillis} and hands every timeout whose deadline has passed to
+   * {@code onExpired}, outside the wheel lock.
+   */
+  public void advance(long nowMillis, Consumer<Timeout<T>> onExpired) {
+    List<Timeout<T>> expired = new ArrayList<>();
+    lock.lock();
+    try {
+      long targetTick = (nowMillis - origin) / tickMillis;
+      while (currentTick < targetTick) {
+        currentTick++;
+        cascade();
+        ArrayDeque<Timeout<T>> slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+        for (int i = slot.size(); i > 0; i--) {
+          Timeout<T> timeout = slot.poll();
+          if (timeout.cancelled) {
+            continue;
+          }
+          if (tickOf(timeout.deadline) > currentTick) {
+            file(timeout);
+          } else {
+            expired.add(timeout);
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    expired.forEach(onExpired);
+  }
+
+  private void cascade() {
+    for (int level = wheels.length - 1; level > 0; level--) {
+      long span = 1L << (SLOT_BITS * level);
+      if ((currentTick & (span - 1)) != 0) {
+        continue;
+      }
+      ArrayDeque<Timeout<T>> slot = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+      for (int i = slot.size(); i > 0; i--) {
+        Timeout<T> timeout = slot.poll();
+        if (!timeout.cancelled) {
+          file(timeout, currentTick);
+        }
+      }
+    }
+  }
+
+  private void file(Timeout<T> timeout) {
+    file(timeout, currentTick + 1);
+  }
+
+  /**
+   * @param earliestTick first tick whose level 0 slot is still to be processed; a cascade runs
+   *                     before the current tick's slot, so a timeout due now may still land in it
+   */
+  private void file(Timeout<T> timeout, long earliestTick) {
+    long deadlineTick = Math.max(tickOf(timeout.deadline), earliestTick);
+    long delay = deadlineTick - currentTick;
+    int level = 0;
+    while (level < wheels.length - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+      level++;
+    }
+    long maxTick = currentTick + (1L << (SLOT_BITS * (level + 1))) - 1;
+    long slotTick = Math.min(deadlineTick, maxTick);
+    wheels[level][(int) ((slotTick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+  }
+
+  private long tickOf(long millis) {
+    return Math.floorDiv(millis - origin + tickMillis - 1, tickMillis);
+  }
+
+  public static final class Timeout<T> {
+    private final T value;
+    private volatile long deadline;
+    private volatile boolean cancelled;
+
+    private Timeout(T value, long deadline) {
+      this.value = value;
+      this.deadline = deadline;
+    }
+
+    public T value() {
+      return value;
+    }
+
+    public void extend(long deadlineMillis) {
+      deadline = deadlineMillis;
+    }
+
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package ru.diszexuf.streamlive.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@code execute} call of a {@link UseCase} and counts the statements and entity loads
+ * it caused, tagged by use case and outcome. Runs outside the transaction advice, so the commit is
+ * part of the measured time. A use case called from another one is counted in both.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class UseCaseMetrics {
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("@within(ru.diszexuf.streamlive.common.UseCase) && execution(public * execute(..))")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    String useCase = joinPoint.getSignature().getDeclaringType().getSimpleName();
+    QueryCounter.Snapshot before = QueryCounter.snapshot();
+    long startedAt = System.nanoTime();
+    String outcome = "success";
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      outcome = "error";
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      long elapsed = System.nanoTime() - startedAt;
+      QueryCounter.Snapshot done = before.since();
+      Timer.builder("streamlive.usecase")
+          .description("Use case execution time")
+          .tags("usecase", useCase, "outcome", outcome, "exception", exception)
+          .register(meterRegistry)
+          .record(elapsed, TimeUnit.NANOSECONDS);
+      DistributionSummary.builder("streamlive.usecase.statements")
+          .description("SQL statements prepared by Hibernate per use case call")
+          .tags("usecase", useCase)
+          .register(meterRegistry)
+          .record(done.statements());
+      DistributionSummary.builder("streamlive.usecase.entity.loads")
+          .description("Entities loaded by Hibernate per use case call")
+          .tags("usecase", useCase)
+          .register(meterRegistry)
+          .record(done.entityLoads());
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package ru.diszexuf.streamlive.common;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the bounded background pools that mostly wait on the database. With
+ * {@code spring.threads.virtual.enabled} their workers are virtual threads like the request
+ * threads; the pool size and queue still bound the work. CPU-bound pools keep platform threads.
+ */
+public final class WorkerThreads {
+
+  private WorkerThreads() {
+  }
+
+  public static ThreadFactory blockingIo(String name, boolean virtual) {
+    if (virtual) {
+      return Thread.ofVirtual().name(name + "-", 1).factory();
+    }
+    return Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+  }
+}
@@ -0,0 +1,69 @@
+package ru.diszexuf.streamlive.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the request path when requests run on virtual threads.
+ * <p>
+ * Virtual threads are never the scarce resource, so without a limit every request starts its work
+ * and then queues on the connection pool. A request first takes one of a fixed number of permits;
+ * when none frees up within {@code timeout} it is answered 503 before it has done anything.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+  private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+  private final Semaphore permits;
+  private final long timeoutNanos;
+
+  public ConcurrencyLimitInterceptor(Semaphore permits, Duration timeout) {
+    this.permits = permits;
+    this.timeoutNanos = timeout.toNanos();
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+      return true;
+    }
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is at capacity");
+    }
+    request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    release(request);
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    release(request);
+  }
+
+  private void release(HttpServletRequest request) {
+    if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+      request.removeAttribute(PERMIT_ATTRIBUTE);
+      permits.release();
+    }
+  }
+}
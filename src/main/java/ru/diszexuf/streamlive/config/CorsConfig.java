@@ -21,7 +21,7 @@ public class CorsConfig {
         config.setAllowCredentials(true);
         config.addAllowedHeader("*");
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD"));
-        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Content-Length", "Content-Disposition"));
+        config.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Content-Length", "Content-Disposition", "X-Next-Cursor"));
         config.setMaxAge(3600L);
         source.registerCorsConfiguration("/**", config);
 
@@ -0,0 +1,52 @@
+package ru.diszexuf.streamlive.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.diszexuf.streamlive.common.QueryCounter;
+
+/**
+ * Feeds {@link QueryCounter} from Hibernate and records its counts per API request, security filters
+ * included. Use case timings come from {@link ru.diszexuf.streamlive.common.UseCaseMetrics}; Hikari
+ * and Hibernate statistics are bound by Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer statementCounter() {
+    StatementInspector inspector = sql -> {
+      QueryCounter.statementPrepared();
+      return sql;
+    };
+    return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+  }
+
+  @Bean
+  public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+    PostLoadEventListener listener = event -> QueryCounter.entityLoaded();
+    return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry()
+        .getService(EventListenerRegistry.class)
+        .appendListeners(EventType.POST_LOAD, listener);
+  }
+
+  @Bean
+  public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry) {
+    FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry));
+    registration.addUrlPatterns("/api/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+}
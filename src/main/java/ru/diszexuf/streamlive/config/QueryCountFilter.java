@@ -0,0 +1,52 @@
+package ru.diszexuf.streamlive.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.diszexuf.streamlive.common.QueryCounter;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and entity loads each API request caused, tagged like
+ * {@code http.server.requests} by method and URI template. Requests that go async (the SSE feed)
+ * are not recorded.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  private final MeterRegistry meterRegistry;
+
+  public QueryCountFilter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    QueryCounter.Snapshot before = QueryCounter.snapshot();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      if (!request.isAsyncStarted()) {
+        QueryCounter.Snapshot done = before.since();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("streamlive.http.statements")
+            .description("SQL statements prepared by Hibernate per request")
+            .tags("method", request.getMethod(), "uri", uri)
+            .register(meterRegistry)
+            .record(done.statements());
+        DistributionSummary.builder("streamlive.http.entity.loads")
+            .description("Entities loaded by Hibernate per request")
+            .tags("method", request.getMethod(), "uri", uri)
+            .register(meterRegistry)
+            .record(done.entityLoads());
+      }
+    }
+  }
+}
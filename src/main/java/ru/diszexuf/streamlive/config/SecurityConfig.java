@@ -14,7 +14,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import ru.diszexuf.streamlive.security.IngestCallbackFilter;
 import ru.diszexuf.streamlive.security.JwtAuthenticationFilter;
+import ru.diszexuf.streamlive.user.Authority;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
   private final JwtAuthenticationFilter jwtFilter;
+  private final IngestCallbackFilter ingestCallbackFilter;
   private final AuthenticationProvider authenticationProvider;
   private final CorsFilter corsFilter;
 
@@ -36,16 +39,24 @@ public class SecurityConfig {
             .requestMatchers("/api/sessions").permitAll()
             .requestMatchers("/api/streams").permitAll()
             .requestMatchers("/api/streams/live").permitAll()
+            .requestMatchers("/api/streams/events").permitAll()
             .requestMatchers("/api/streams/*/search").permitAll()
             .requestMatchers("/api/streams/user/*").permitAll()
+            .requestMatchers("/api/streams/*/viewers/heartbeat").permitAll()
             .requestMatchers(req -> req.getMethod().equals("GET") && req.getRequestURI().matches("/api/streams/[^/]+")).permitAll()
 
             .requestMatchers("/api/users").permitAll()
             .requestMatchers("/api/users/availability/**").permitAll()
             .requestMatchers("/api/users/me").authenticated()
+            .requestMatchers("/api/users/*/follow").authenticated()
 
             .requestMatchers("/api/users/**").permitAll()
 
+            .requestMatchers("/api/ingest/**").permitAll()
+
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .requestMatchers("/actuator/**").hasAuthority(Authority.ROLE_ADMIN.name())
+
             .requestMatchers("/uploads/avatars/**").permitAll()
             .requestMatchers("/uploads/thumbnails/**").permitAll()
 
@@ -56,6 +67,7 @@ public class SecurityConfig {
         .authenticationProvider(authenticationProvider)
         .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
         .addFilterBefore(corsFilter, JwtAuthenticationFilter.class)
+        .addFilterBefore(ingestCallbackFilter, JwtAuthenticationFilter.class)
         .build();
   }
 
@@ -65,7 +77,7 @@ public class SecurityConfig {
     configuration.setAllowedOrigins(List.of("http://localhost:5173"));
     configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD"));
     configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin", "Access-Control-Request-Method", "Access-Control-Request-Headers"));
-    configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Content-Length", "Content-Disposition"));
+    configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Content-Length", "Content-Disposition", "X-Next-Cursor"));
     configuration.setAllowCredentials(true);
     configuration.setMaxAge(3600L);
 
@@ -0,0 +1,50 @@
+package ru.diszexuf.streamlive.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Request-path settings that only apply when {@code spring.threads.virtual.enabled} is set (the
+ * {@code virtual} profile). Concurrent API requests are capped at the connection pool size times
+ * {@code streamlive.virtual-threads.requests-per-connection}; the SSE feed holds its request open
+ * and is not counted.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+  private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+  public VirtualThreadConfig(DataSource dataSource,
+                             MeterRegistry meterRegistry,
+                             @Value("${streamlive.virtual-threads.requests-per-connection}") int requestsPerConnection,
+                             @Value("${streamlive.virtual-threads.admission-timeout}") Duration admissionTimeout) {
+    int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+    int limit = Math.max(1, poolSize * requestsPerConnection);
+    Semaphore permits = new Semaphore(limit, true);
+    Gauge.builder("streamlive.requests.admission.available", permits, Semaphore::availablePermits)
+        .description("Free request permits in virtual-thread mode")
+        .register(meterRegistry);
+    this.concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(permits, admissionTimeout);
+    log.info("Virtual-thread mode: at most {} concurrent API requests for {} pooled connections", limit, poolSize);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(concurrencyLimitInterceptor)
+        .addPathPatterns("/api/**")
+        .excludePathPatterns("/api/streams/events");
+  }
+}
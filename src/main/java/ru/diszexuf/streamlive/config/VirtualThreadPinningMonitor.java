@@ -0,0 +1,86 @@
+package ru.diszexuf.streamlive.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier (blocking inside {@code synchronized}
+ * or a native frame) for longer than {@code streamlive.virtual-threads.pinning-threshold}.
+ * <p>
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process. Every occurrence is counted
+ * in {@code jvm.threads.virtual.pinned}; the stack is logged once per distinct call site.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 12;
+
+  private final Duration threshold;
+  private final Counter pinned;
+  private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+  private RecordingStream recording;
+
+  public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                     @Value("${streamlive.virtual-threads.pinning-threshold}") Duration threshold) {
+    this.threshold = threshold;
+    this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+        .description("Virtual threads pinned to their carrier longer than the threshold")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    recording = new RecordingStream();
+    recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recording.onEvent(PINNED_EVENT, this::onPinned);
+    recording.startAsync();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (recording != null) {
+      recording.close();
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinned.increment();
+    String stack = describe(event.getStackTrace());
+    if (reportedSites.add(stack)) {
+      log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), stack);
+    }
+  }
+
+  private static String describe(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "\t<no stack trace>";
+    }
+    return stackTrace.getFrames().stream()
+        .limit(LOGGED_FRAMES)
+        .map(VirtualThreadPinningMonitor::describe)
+        .collect(Collectors.joining("\n"));
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+        + ":" + frame.getLineNumber();
+  }
+}
@@ -0,0 +1,38 @@
+package ru.diszexuf.streamlive.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.diszexuf.streamlive.api.IngestApi;
+import ru.diszexuf.streamlive.ingest.useCases.AuthorizePublishUseCase;
+import ru.diszexuf.streamlive.ingest.useCases.EndPublishUseCase;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class IngestController implements IngestApi {
+
+    private final AuthorizePublishUseCase authorizePublishUseCase;
+    private final EndPublishUseCase endPublishUseCase;
+
+    /**
+     * A 3xx answer makes nginx-rtmp rename the stream to the Location value, so the stream is
+     * played back under the public user id rather than under its key.
+     */
+    @Override
+    public ResponseEntity<Void> onPublish(String name, String clientid, String app, String call, String addr) {
+        UUID userId = authorizePublishUseCase.execute(name, clientid);
+        return ResponseEntity.status(HttpStatus.FOUND).header(HttpHeaders.LOCATION, userId.toString()).build();
+    }
+
+    @Override
+    public ResponseEntity<Void> onPublishDone(String name, String clientid, String app, String call, String addr) {
+        endPublishUseCase.execute(name, clientid);
+        return ResponseEntity.ok().build();
+    }
+}
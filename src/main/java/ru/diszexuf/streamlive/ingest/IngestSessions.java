@@ -0,0 +1,47 @@
+package ru.diszexuf.streamlive.ingest;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RTMP connections currently publishing, as reported by the nginx-rtmp callbacks.
+ * <p>
+ * Connections are tracked by the nginx {@code clientid}, so a late {@code publish_done} of a
+ * connection that was already replaced by a reconnect does not take the user offline.
+ */
+@Component
+public class IngestSessions {
+
+  private final Map<String, UUID> connections = new ConcurrentHashMap<>();
+  private final Map<UUID, String> publishing = new ConcurrentHashMap<>();
+
+  public void publish(UUID userId, String clientId) {
+    String previous = publishing.put(userId, clientId);
+    if (previous != null && !previous.equals(clientId)) {
+      connections.remove(previous, userId);
+    }
+    connections.put(clientId, userId);
+  }
+
+  /**
+   * @return the user the connection was publishing for, or {@code null} for an unknown connection
+   */
+  public UUID publishDone(String clientId) {
+    UUID userId = connections.remove(clientId);
+    if (userId != null) {
+      publishing.remove(userId, clientId);
+    }
+    return userId;
+  }
+
+  public boolean isPublishing(UUID userId) {
+    return publishing.containsKey(userId);
+  }
+
+  public int size() {
+    return publishing.size();
+  }
+}
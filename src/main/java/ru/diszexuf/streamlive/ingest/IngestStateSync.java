@@ -0,0 +1,65 @@
+package ru.diszexuf.streamlive.ingest;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.diszexuf.streamlive.common.WorkerThreads;
+import ru.diszexuf.streamlive.ingest.useCases.SyncIngestStateUseCase;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings {@code Stream.isLive} in line with {@link IngestSessions} off the callback thread.
+ * <p>
+ * Requests are coalesced per user and run on a single thread: a burst of publish / publish_done
+ * callbacks for one user costs at most one pending database sync, and syncs for the same user
+ * never race each other.
+ */
+@Component
+@Slf4j
+public class IngestStateSync {
+
+  private final SyncIngestStateUseCase syncIngestStateUseCase;
+  private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+  private final ThreadPoolExecutor executor;
+
+  public IngestStateSync(SyncIngestStateUseCase syncIngestStateUseCase,
+                         @Value("${streamlive.ingest.sync-queue-capacity}") int queueCapacity,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.syncIngestStateUseCase = syncIngestStateUseCase;
+    this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.blockingIo("ingest-sync", virtualThreads));
+  }
+
+  public void request(UUID userId) {
+    if (!pending.add(userId)) {
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        pending.remove(userId);
+        try {
+          syncIngestStateUseCase.execute(userId);
+        } catch (RuntimeException e) {
+          log.error("Failed to sync ingest state of user {}", userId, e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pending.remove(userId);
+      log.warn("Ingest sync queue is full, dropping sync of user {}", userId);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+}
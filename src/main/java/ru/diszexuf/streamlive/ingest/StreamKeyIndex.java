@@ -0,0 +1,139 @@
+package ru.diszexuf.streamlive.ingest;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.user.StreamKeyResetEvent;
+import ru.diszexuf.streamlive.user.StreamKeyView;
+import ru.diszexuf.streamlive.user.UserDeletedEvent;
+import ru.diszexuf.streamlive.user.UserRegisteredEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code streamKey -> userId} lookup for RTMP publish authorization, so that accepting or refusing
+ * an ingest connection never waits on the database.
+ * <p>
+ * Loaded once at startup and kept current by the user events once their transaction commits.
+ * Until the first load completes every key is unknown and publishing is refused.
+ */
+@Component
+public class StreamKeyIndex {
+
+  private final Map<UUID, UUID> usersByKey = new ConcurrentHashMap<>();
+  private final Map<UUID, UUID> keysByUser = new ConcurrentHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile boolean loaded;
+
+  /**
+   * @return id of the user owning {@code streamKey}, or {@code null} when no user has it
+   */
+  public UUID userIdOf(UUID streamKey) {
+    return usersByKey.get(streamKey);
+  }
+
+  /**
+   * @return id of the user owning the stream key an encoder published to as {@code name}, or
+   * {@code null} when the name is not a known key
+   */
+  public UUID userIdOf(String name) {
+    UUID streamKey = parse(name);
+    return streamKey == null ? null : userIdOf(streamKey);
+  }
+
+  /**
+   * Resolves the name nginx reports for a publishing connection: the stream key, or the user id
+   * once {@code on_publish} has redirected the stream to it. Never use this to authorize publishing.
+   *
+   * @return id of the user, or {@code null} when the name is neither
+   */
+  public UUID publisherOf(String name) {
+    UUID id = parse(name);
+    if (id == null) {
+      return null;
+    }
+    UUID userId = usersByKey.get(id);
+    return userId != null ? userId : keysByUser.containsKey(id) ? id : null;
+  }
+
+  private static UUID parse(String name) {
+    try {
+      return name == null ? null : UUID.fromString(name);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  public int size() {
+    return usersByKey.size();
+  }
+
+  public void put(UUID userId, UUID streamKey) {
+    writeLock.lock();
+    try {
+      UUID previous = keysByUser.put(userId, streamKey);
+      if (previous != null && !previous.equals(streamKey)) {
+        usersByKey.remove(previous, userId);
+      }
+      usersByKey.put(streamKey, userId);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void remove(UUID userId) {
+    writeLock.lock();
+    try {
+      UUID previous = keysByUser.remove(userId);
+      if (previous != null) {
+        usersByKey.remove(previous, userId);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Replaces the index content with {@code rows}. Holds the write lock for the whole read, so user
+   * events committed meanwhile are applied on top of the loaded state rather than lost.
+   */
+  public void rebuild(java.util.stream.Stream<StreamKeyView> rows) {
+    writeLock.lock();
+    try {
+      Map<UUID, UUID> built = new HashMap<>();
+      rows.forEach(row -> built.put(row.getId(), row.getStreamKey()));
+
+      usersByKey.clear();
+      keysByUser.clear();
+      built.forEach((userId, streamKey) -> {
+        keysByUser.put(userId, streamKey);
+        usersByKey.put(streamKey, userId);
+      });
+      loaded = true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserRegistered(UserRegisteredEvent event) {
+    put(event.userId(), event.streamKey());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamKeyReset(StreamKeyResetEvent event) {
+    put(event.userId(), event.streamKey());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    remove(event.userId());
+  }
+}
@@ -0,0 +1,42 @@
+package ru.diszexuf.streamlive.ingest.useCases;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.ingest.IngestSessions;
+import ru.diszexuf.streamlive.ingest.IngestStateSync;
+import ru.diszexuf.streamlive.ingest.StreamKeyIndex;
+
+import java.util.UUID;
+
+/**
+ * Handles the nginx-rtmp {@code on_publish} callback. Answered from memory only; taking the stream
+ * live in the database happens afterwards on {@link IngestStateSync}.
+ */
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorizePublishUseCase {
+  private final StreamKeyIndex streamKeyIndex;
+  private final IngestSessions ingestSessions;
+  private final IngestStateSync ingestStateSync;
+
+  /**
+   * @return id of the publishing user, which becomes the playback name of the stream
+   */
+  public UUID execute(String name, String clientId) {
+    if (!streamKeyIndex.isLoaded()) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Stream keys are not loaded yet");
+    }
+    UUID userId = streamKeyIndex.userIdOf(name);
+    if (userId == null) {
+      log.info("Publish refused for client {}: unknown stream key", clientId);
+      throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unknown stream key");
+    }
+    ingestSessions.publish(userId, clientId);
+    ingestStateSync.request(userId);
+    return userId;
+  }
+}
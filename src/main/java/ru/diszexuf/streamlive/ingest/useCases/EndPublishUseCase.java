@@ -0,0 +1,37 @@
+package ru.diszexuf.streamlive.ingest.useCases;
+
+import lombok.RequiredArgsConstructor;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.ingest.IngestSessions;
+import ru.diszexuf.streamlive.ingest.IngestStateSync;
+import ru.diszexuf.streamlive.ingest.StreamKeyIndex;
+
+import java.util.UUID;
+
+/**
+ * Handles the nginx-rtmp {@code on_publish_done} callback.
+ * <p>
+ * {@link IngestSessions} is in memory, so a connection opened before a restart is unknown here. Its
+ * user is then found by the playback name or stream key in {@code name} and the stream is ended,
+ * unless the user has published again on a connection this process knows about.
+ */
+@UseCase
+@RequiredArgsConstructor
+public class EndPublishUseCase {
+  private final IngestSessions ingestSessions;
+  private final IngestStateSync ingestStateSync;
+  private final StreamKeyIndex streamKeyIndex;
+
+  public void execute(String name, String clientId) {
+    UUID userId = ingestSessions.publishDone(clientId);
+    if (userId == null) {
+      userId = streamKeyIndex.publisherOf(name);
+      if (userId != null && ingestSessions.isPublishing(userId)) {
+        return;
+      }
+    }
+    if (userId != null) {
+      ingestStateSync.request(userId);
+    }
+  }
+}
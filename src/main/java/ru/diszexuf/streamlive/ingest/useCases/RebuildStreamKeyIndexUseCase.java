@@ -0,0 +1,31 @@
+package ru.diszexuf.streamlive.ingest.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.ingest.StreamKeyIndex;
+import ru.diszexuf.streamlive.user.StreamKeyView;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RebuildStreamKeyIndexUseCase {
+  private final UserRepository userRepository;
+  private final StreamKeyIndex streamKeyIndex;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void execute() {
+    long startedAt = System.nanoTime();
+    try (java.util.stream.Stream<StreamKeyView> rows = userRepository.streamKeyViews()) {
+      streamKeyIndex.rebuild(rows);
+    }
+    log.info("Stream key index rebuilt in {} ms, {} keys indexed",
+        (System.nanoTime() - startedAt) / 1_000_000, streamKeyIndex.size());
+  }
+
+}
@@ -0,0 +1,72 @@
+package ru.diszexuf.streamlive.ingest.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.ingest.IngestSessions;
+import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.stream.StreamEndedEvent;
+import ru.diszexuf.streamlive.stream.StreamMapper;
+import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.StreamStartedEvent;
+import ru.diszexuf.streamlive.user.User;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.UUID;
+
+/**
+ * Starts or ends the live stream of a user so that it matches whether the user is publishing.
+ * Idempotent: a stream created from the UI before publishing is reused, not duplicated.
+ */
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SyncIngestStateUseCase {
+  private final IngestSessions ingestSessions;
+  private final StreamRepository streamRepository;
+  private final UserRepository userRepository;
+  private final StreamMapper streamMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private static final String DEFAULT_THUMBNAIL = "https://picsum.photos/200/300";
+
+  public void execute(UUID userId) {
+    boolean publishing = ingestSessions.isPublishing(userId);
+    User user = userRepository.findForUpdateById(userId).orElse(null);
+    if (user == null) {
+      if (publishing) {
+        log.warn("Ingest started for unknown user {}", userId);
+      }
+      return;
+    }
+    Stream live = streamRepository.findByUserAndIsLiveTrue(user);
+
+    if (publishing && live == null) {
+      Stream previous = streamRepository.findFirstByUserIdOrderByStartedAtDesc(userId);
+      Stream stream = Stream.builder()
+          .user(user)
+          .title(previous != null ? previous.getTitle() : user.getUsername())
+          .description(previous != null ? previous.getDescription() : null)
+          .thumbnailUrl(previous != null ? previous.getThumbnailUrl() : DEFAULT_THUMBNAIL)
+          .tags(previous != null ? new HashSet<>(previous.getTags()) : new HashSet<>())
+          .startedAt(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime())
+          .isLive(true)
+          .viewersCount(0)
+          .build();
+      eventPublisher.publishEvent(new StreamStartedEvent(streamMapper.toDto(streamRepository.save(stream))));
+      log.info("Stream of user {} started by ingest", userId);
+    } else if (!publishing && live != null) {
+      live.setIsLive(false);
+      live.setEndedAt(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime());
+      streamRepository.save(live);
+      eventPublisher.publishEvent(new StreamEndedEvent(live.getId(), userId));
+      log.info("Stream of user {} ended by ingest", userId);
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package ru.diszexuf.streamlive.media;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mapstruct.Named;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Generates fixed-width JPEG copies of stored images in the background.
+ * <p>
+ * Every {@link MediaStoredEvent} queues one job on a bounded pool; when the queue is full the job
+ * is dropped and the original keeps being served, so a backlog never slows down uploads. A copy of
+ * {@code <hash>.<ext>} is written next to it as {@code <hash>-w<width>.jpg}; widths at or above the
+ * original width are skipped. Which copies exist is kept in memory and rebuilt from the upload
+ * directories at startup.
+ */
+@Component
+@Slf4j
+public class ImageDerivatives {
+
+  private static final Pattern DERIVATIVE = Pattern.compile("(.+)-w(\\d+)\\.jpg");
+
+  private final MediaStorage mediaStorage;
+  private final ApplicationEventPublisher eventPublisher;
+  private final float jpegQuality;
+  private final long maxPixels;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, int[]> ready = new ConcurrentHashMap<>();
+  private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+  public ImageDerivatives(MediaStorage mediaStorage,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${streamlive.media.derivatives.workers}") int workers,
+                          @Value("${streamlive.media.derivatives.queue-capacity}") int queueCapacity,
+                          @Value("${streamlive.media.derivatives.jpeg-quality}") float jpegQuality,
+                          @Value("${streamlive.media.derivatives.max-pixels}") long maxPixels) {
+    this.mediaStorage = mediaStorage;
+    this.eventPublisher = eventPublisher;
+    this.jpegQuality = jpegQuality;
+    this.maxPixels = maxPixels;
+    AtomicInteger threads = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "media-derivatives-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          thread.setPriority(Thread.NORM_PRIORITY - 1);
+          return thread;
+        });
+  }
+
+  @PostConstruct
+  public void scan() throws IOException {
+    for (MediaKind kind : MediaKind.values()) {
+      Path directory = mediaStorage.directory(kind);
+      if (!Files.isDirectory(directory)) {
+        continue;
+      }
+      Map<String, int[]> found = new ConcurrentHashMap<>();
+      try (Stream<Path> files = Files.list(directory)) {
+        files.forEach(file -> {
+          Matcher matcher = DERIVATIVE.matcher(file.getFileName().toString());
+          if (matcher.matches()) {
+            found.merge(key(kind, matcher.group(1)), new int[]{Integer.parseInt(matcher.group(2))}, ImageDerivatives::concat);
+          }
+        });
+      }
+      found.values().forEach(Arrays::sort);
+      ready.putAll(found);
+    }
+  }
+
+  /**
+   * @return URLs of the resized copies of the image at {@code url}, keyed by width; empty when none
+   * are ready or the image is not stored here
+   */
+  public Map<String, String> variants(MediaKind kind, String url) {
+    String hash = hashOf(kind, url);
+    int[] widths = hash == null ? null : ready.get(key(kind, hash));
+    if (widths == null) {
+      return Map.of();
+    }
+    Map<String, String> variants = new LinkedHashMap<>();
+    for (int width : widths) {
+      variants.put(String.valueOf(width), mediaStorage.url(kind, derivativeName(hash, width)));
+    }
+    return variants;
+  }
+
+  @Named("thumbnailVariants")
+  public Map<String, String> thumbnailVariants(String url) {
+    return variants(MediaKind.THUMBNAIL, url);
+  }
+
+  public int backlog() {
+    return executor.getQueue().size();
+  }
+
+  @EventListener
+  public void onMediaStored(MediaStoredEvent event) {
+    String fileName = event.file().getFileName().toString();
+    String hash = stripExtension(fileName);
+    String key = key(event.kind(), hash);
+    if (ready.containsKey(key) || !pending.add(key)) {
+      return;
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          generate(event.kind(), event.file(), hash);
+        } catch (IOException | RuntimeException e) {
+          log.warn("Failed to generate derivatives of {}", event.file(), e);
+        } finally {
+          pending.remove(key);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pending.remove(key);
+      log.warn("Derivative queue is full, serving {} at original size", fileName);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void generate(MediaKind kind, Path original, String hash) throws IOException {
+    if (!withinPixelLimit(original)) {
+      log.warn("Skipping derivatives of {}: larger than {} pixels", original, maxPixels);
+      return;
+    }
+    BufferedImage image = ImageIO.read(original.toFile());
+    if (image == null) {
+      log.debug("Skipping derivatives of {}: not a readable image", original);
+      return;
+    }
+
+    int[] widths = Arrays.stream(kind.derivativeWidths())
+        .filter(width -> width < image.getWidth())
+        .sorted()
+        .toArray();
+    BufferedImage source = image;
+    for (int i = widths.length - 1; i >= 0; i--) {
+      BufferedImage resized = ImageResizer.resize(source, widths[i]);
+      write(resized, original.resolveSibling(derivativeName(hash, widths[i])));
+      source = resized;
+    }
+
+    ready.put(key(kind, hash), widths);
+    String url = mediaStorage.url(kind, original.getFileName().toString());
+    eventPublisher.publishEvent(new MediaDerivativesReadyEvent(kind, url, variants(kind, url)));
+  }
+
+  private boolean withinPixelLimit(Path file) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+      Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+      if (readers == null || !readers.hasNext()) {
+        return true;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        return (long) reader.getWidth(0) * reader.getHeight(0) <= maxPixels;
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private void write(BufferedImage image, Path target) throws IOException {
+    Path temp = Files.createTempFile(target.getParent(), "derivative-", ".part");
+    try {
+      try (OutputStream output = Files.newOutputStream(temp)) {
+        ImageResizer.writeJpeg(image, jpegQuality, output);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private String hashOf(MediaKind kind, String url) {
+    String prefix = mediaStorage.urlPrefix(kind);
+    if (url == null || !url.startsWith(prefix)) {
+      return null;
+    }
+    return stripExtension(url.substring(prefix.length()));
+  }
+
+  private static String derivativeName(String hash, int width) {
+    return hash + "-w" + width + ".jpg";
+  }
+
+  private static String stripExtension(String fileName) {
+    int dot = fileName.lastIndexOf('.');
+    return dot < 0 ? fileName : fileName.substring(0, dot);
+  }
+
+  private static String key(MediaKind kind, String hash) {
+    return kind.directory() + "/" + hash;
+  }
+
+  private static int[] concat(int[] left, int[] right) {
+    int[] result = Arrays.copyOf(left, left.length + right.length);
+    System.arraycopy(right, 0, result, left.length, right.length);
+    return result;
+  }
+}
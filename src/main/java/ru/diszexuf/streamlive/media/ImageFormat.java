@@ -0,0 +1,116 @@
+package ru.diszexuf.streamlive.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Image formats accepted for upload, recognised by their leading bytes. Anything else, SVG
+ * included, is refused: it would be served from our origin with a type a browser may render.
+ */
+public enum ImageFormat {
+  JPEG(".jpg", List.of(".jpg", ".jpeg"), List.of("image/jpeg", "image/pjpeg")),
+  PNG(".png", List.of(".png"), List.of("image/png")),
+  GIF(".gif", List.of(".gif"), List.of("image/gif")),
+  WEBP(".webp", List.of(".webp"), List.of("image/webp"));
+
+  private static final int HEADER_LENGTH = 12;
+
+  private final String extension;
+  private final List<String> extensions;
+  private final List<String> mediaTypes;
+
+  ImageFormat(String extension, List<String> extensions, List<String> mediaTypes) {
+    this.extension = extension;
+    this.extensions = extensions;
+    this.mediaTypes = mediaTypes;
+  }
+
+  /**
+   * Extension stored files of this format get, whatever the uploaded name said.
+   */
+  public String extension() {
+    return extension;
+  }
+
+  public String mediaType() {
+    return mediaTypes.get(0);
+  }
+
+  public boolean acceptsExtension(String extension) {
+    return extensions.contains(extension.toLowerCase(Locale.ROOT));
+  }
+
+  public boolean acceptsMediaType(String mediaType) {
+    return mediaTypes.contains(mediaType.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * @return the format of the stored file named {@code fileName}, or {@code null} for other names
+   */
+  public static ImageFormat ofFileName(String fileName) {
+    int dot = fileName.lastIndexOf('.');
+    if (dot < 0) {
+      return null;
+    }
+    String extension = fileName.substring(dot);
+    for (ImageFormat format : values()) {
+      if (format.acceptsExtension(extension)) {
+        return format;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the format the content of {@code file} starts with, or {@code null} when it is none of them
+   */
+  public static ImageFormat detect(Path file) throws IOException {
+    byte[] header;
+    try (InputStream input = Files.newInputStream(file)) {
+      header = input.readNBytes(HEADER_LENGTH);
+    }
+    return detect(header);
+  }
+
+  static ImageFormat detect(byte[] header) {
+    if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+      return JPEG;
+    }
+    if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+      return PNG;
+    }
+    if (startsWith(header, 0, "GIF87a") || startsWith(header, 0, "GIF89a")) {
+      return GIF;
+    }
+    if (startsWith(header, 0, "RIFF") && startsWith(header, 8, "WEBP")) {
+      return WEBP;
+    }
+    return null;
+  }
+
+  private static boolean startsWith(byte[] header, int offset, String signature) {
+    byte[] bytes = signature.getBytes(StandardCharsets.US_ASCII);
+    int[] values = new int[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      values[i] = bytes[i];
+    }
+    return startsWith(header, offset, values);
+  }
+
+  private static boolean startsWith(byte[] header, int offset, int... signature) {
+    if (header.length < offset + signature.length) {
+      return false;
+    }
+    for (int i = 0; i < signature.length; i++) {
+      if ((header[offset + i] & 0xFF) != signature[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,78 @@
+package ru.diszexuf.streamlive.media;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Downscaling and JPEG encoding of uploaded images.
+ * <p>
+ * Images are halved with bilinear filtering until they are within 2x of the target width, then
+ * scaled once more; that keeps the quality of a multi-tap filter at the cost of bilinear passes.
+ * Transparency is flattened onto white, since the output is always JPEG.
+ */
+public final class ImageResizer {
+
+  private ImageResizer() {
+  }
+
+  public static BufferedImage resize(BufferedImage source, int width) {
+    BufferedImage current = flatten(source);
+    int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+    while (current.getWidth() / 2 >= width) {
+      current = scale(current, current.getWidth() / 2, Math.max(targetHeight, current.getHeight() / 2));
+    }
+    return current.getWidth() == width ? current : scale(current, width, targetHeight);
+  }
+
+  public static void writeJpeg(BufferedImage image, float quality, OutputStream output) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+      writer.setOutput(stream);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  private static BufferedImage flatten(BufferedImage source) {
+    if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+      return source;
+    }
+    BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = rgb.createGraphics();
+    try {
+      graphics.setColor(Color.WHITE);
+      graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+      graphics.drawImage(source, 0, 0, null);
+    } finally {
+      graphics.dispose();
+    }
+    return rgb;
+  }
+
+  private static BufferedImage scale(BufferedImage source, int width, int height) {
+    BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return scaled;
+  }
+}
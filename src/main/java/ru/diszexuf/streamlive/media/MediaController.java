@@ -0,0 +1,193 @@
+package ru.diszexuf.streamlive.media;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded images.
+ * <p>
+ * Content-addressed files ({@code <sha256>[-w<width>].<ext>}) never change, so they are sent with a
+ * strong ETag made of their hash and {@code Cache-Control: immutable}; browsers do not come back for
+ * them. Older files with random names get a size/mtime ETag and are revalidated. Single byte ranges
+ * are honoured. Bodies are handed to the connector's sendfile when it offers one and copied with
+ * {@link FileChannel#transferTo} otherwise.
+ * <p>
+ * Only image extensions get an image content type; anything else is sent as
+ * {@code application/octet-stream}, and {@code nosniff} keeps browsers from guessing otherwise.
+ * <p>
+ * Not part of openapi.yaml: the generated interfaces cannot express conditional and range requests.
+ */
+@RestController
+@RequiredArgsConstructor
+public class MediaController {
+
+  private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64}(?:-w\\d+)?)(?:\\.[a-z0-9]{1,5})?");
+  private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+  private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+  private static final String REVALIDATE = "public, no-cache";
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+  private final MediaStorage mediaStorage;
+
+  @RequestMapping(value = "/uploads/{directory}/{fileName}", method = {RequestMethod.GET, RequestMethod.HEAD})
+  public void serve(@PathVariable String directory, @PathVariable String fileName,
+                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+    MediaKind kind = MediaKind.ofDirectory(directory);
+    Path file = kind == null ? null : mediaStorage.resolve(kind, fileName);
+    if (file == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    }
+
+    long length = Files.size(file);
+    long lastModified = Files.getLastModifiedTime(file).toMillis();
+    Matcher contentAddressed = CONTENT_ADDRESSED.matcher(fileName);
+    boolean immutable = contentAddressed.matches();
+    String etag = immutable ? '"' + contentAddressed.group(1) + '"' : "\"" + length + "-" + lastModified + "\"";
+
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE : REVALIDATE);
+    response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader("X-Content-Type-Options", "nosniff");
+
+    if (notModified(request, etag, lastModified)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    long start = 0;
+    long end = length - 1;
+    String range = request.getHeader(HttpHeaders.RANGE);
+    if (range != null && rangeApplies(request, etag)) {
+      long[] bounds = parseRange(range, length);
+      if (bounds == null) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        return;
+      }
+      if (bounds.length == 2) {
+        start = bounds[0];
+        end = bounds[1];
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+      }
+    }
+
+    long count = end - start + 1;
+    ImageFormat format = ImageFormat.ofFileName(fileName);
+    response.setContentType(format == null ? MediaType.APPLICATION_OCTET_STREAM_VALUE : format.mediaType());
+    response.setContentLengthLong(count);
+    if ("HEAD".equals(request.getMethod()) || count == 0) {
+      return;
+    }
+
+    if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+      request.setAttribute("org.apache.tomcat.sendfile.start", start);
+      request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+         OutputStream output = response.getOutputStream()) {
+      WritableByteChannel target = Channels.newChannel(output);
+      long position = start;
+      while (position <= end) {
+        position += channel.transferTo(position, end + 1 - position, target);
+      }
+    }
+  }
+
+  private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null) {
+      return matches(ifNoneMatch, etag);
+    }
+    long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+    return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+  }
+
+  /**
+   * A range request carrying {@code If-Range} is only served partially while the file is unchanged.
+   */
+  private static boolean rangeApplies(HttpServletRequest request, String etag) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    return ifRange == null || ifRange.trim().equals(etag);
+  }
+
+  /**
+   * @return {@code {start, end}} for one satisfiable range, an empty array when the header is
+   * ignored (several ranges, bad syntax, a last position before the first) and {@code null} when
+   * the range is unsatisfiable
+   */
+  private static long[] parseRange(String header, long length) {
+    Matcher matcher = SINGLE_RANGE.matcher(header.trim());
+    if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+      return new long[0];
+    }
+    try {
+      long start;
+      long end;
+      if (matcher.group(1).isEmpty()) {
+        long suffix = Long.parseLong(matcher.group(2));
+        if (suffix == 0) {
+          return null;
+        }
+        start = Math.max(0, length - suffix);
+        end = length - 1;
+      } else {
+        start = Long.parseLong(matcher.group(1));
+        if (matcher.group(2).isEmpty()) {
+          end = length - 1;
+        } else {
+          end = Long.parseLong(matcher.group(2));
+          if (end < start) {
+            return new long[0];
+          }
+          end = Math.min(end, length - 1);
+        }
+      }
+      return start >= length ? null : new long[]{start, end};
+    } catch (NumberFormatException e) {
+      return new long[0];
+    }
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long dateHeader(HttpServletRequest request, String name) {
+    try {
+      return request.getDateHeader(name);
+    } catch (IllegalArgumentException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package ru.diszexuf.streamlive.media;
+
+import java.util.Map;
+
+/**
+ * @param url      URL of the original file
+ * @param variants URLs of its resized copies, keyed by width
+ */
+public record MediaDerivativesReadyEvent(MediaKind kind, String url, Map<String, String> variants) {
+}
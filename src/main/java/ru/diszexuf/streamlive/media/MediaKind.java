@@ -0,0 +1,31 @@
+package ru.diszexuf.streamlive.media;
+
+public enum MediaKind {
+  AVATAR("avatars", 64, 128, 256),
+  THUMBNAIL("thumbnails", 320, 640, 1280);
+
+  private final String directory;
+  private final int[] derivativeWidths;
+
+  MediaKind(String directory, int... derivativeWidths) {
+    this.directory = directory;
+    this.derivativeWidths = derivativeWidths;
+  }
+
+  public String directory() {
+    return directory;
+  }
+
+  public static MediaKind ofDirectory(String directory) {
+    for (MediaKind kind : values()) {
+      if (kind.directory.equals(directory)) {
+        return kind;
+      }
+    }
+    return null;
+  }
+
+  public int[] derivativeWidths() {
+    return derivativeWidths.clone();
+  }
+}
@@ -0,0 +1,164 @@
+package ru.diszexuf.streamlive.media;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Content-addressed storage for uploaded images.
+ * <p>
+ * An upload is streamed through a direct buffer into a temporary file while it is hashed, then
+ * moved to {@code <root>/<kind>/<sha256><ext>}, where the extension comes from the
+ * {@link ImageFormat} recognised in the content. Uploading a file that is already stored only costs
+ * the hashing pass: the temporary copy is dropped and the existing URL is returned.
+ * <p>
+ * Nothing here touches the database; callers store the file first and only keep the returned URL
+ * in their transaction.
+ */
+@Component
+@Slf4j
+public class MediaStorage {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path root;
+  private final Path tempDirectory;
+  private final String baseUrl;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public MediaStorage(@Value("${streamlive.media.root}") Path root,
+                      @Value("${streamlive.media.base-url}") String baseUrl,
+                      ApplicationEventPublisher eventPublisher) {
+    this.root = root.toAbsolutePath().normalize();
+    this.tempDirectory = this.root.resolve(".tmp");
+    this.baseUrl = baseUrl;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /**
+   * @return public URL of the stored file
+   */
+  public String store(MediaKind kind, MultipartFile file) {
+    try {
+      Files.createDirectories(tempDirectory);
+      Path temp = Files.createTempFile(tempDirectory, "upload-", ".part");
+      try {
+        String hash = copyAndHash(file, temp);
+        String fileName = hash + verifiedFormat(file, temp).extension();
+        Path target = directory(kind).resolve(fileName);
+        if (Files.exists(target)) {
+          log.debug("Upload {} already stored", fileName);
+        } else {
+          Files.createDirectories(target.getParent());
+          moveIntoPlace(temp, target);
+        }
+        eventPublisher.publishEvent(new MediaStoredEvent(kind, target));
+        return url(kind, fileName);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to store " + kind.name().toLowerCase(Locale.ROOT), e);
+    }
+  }
+
+  public Path directory(MediaKind kind) {
+    return root.resolve(kind.directory());
+  }
+
+  /**
+   * @return the stored file named {@code fileName}, or {@code null} when the name is not a plain
+   * file name of {@code kind}'s directory or no such file exists
+   */
+  public Path resolve(MediaKind kind, String fileName) {
+    Path directory = directory(kind);
+    Path file = directory.resolve(fileName).normalize();
+    if (!file.getParent().equals(directory) || !Files.isRegularFile(file)) {
+      return null;
+    }
+    return file;
+  }
+
+  public String url(MediaKind kind, String fileName) {
+    return urlPrefix(kind) + fileName;
+  }
+
+  public String urlPrefix(MediaKind kind) {
+    return baseUrl + "/uploads/" + kind.directory() + "/";
+  }
+
+  private static String copyAndHash(MultipartFile file, Path temp) throws IOException {
+    MessageDigest digest = sha256();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    try (InputStream input = file.getInputStream();
+         ReadableByteChannel source = Channels.newChannel(input);
+         FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (source.read(buffer) != -1) {
+        buffer.flip();
+        digest.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+          target.write(buffer);
+        }
+        buffer.clear();
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static void moveIntoPlace(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException e) {
+      // Same content stored concurrently by another request.
+    }
+  }
+
+  /**
+   * The format is taken from the uploaded bytes; the declared name and content type may only agree
+   * with it, so an HTML or SVG file cannot be stored under an image name or the other way round.
+   */
+  private static ImageFormat verifiedFormat(MultipartFile file, Path temp) throws IOException {
+    ImageFormat format = ImageFormat.detect(temp);
+    if (format == null) {
+      throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Only JPEG, PNG, GIF and WebP images are accepted");
+    }
+    String fileName = file.getOriginalFilename();
+    String contentType = file.getContentType();
+    boolean extensionMatches = fileName == null || !fileName.contains(".")
+        || format.acceptsExtension(fileName.substring(fileName.lastIndexOf('.')));
+    boolean contentTypeMatches = contentType == null || format.acceptsMediaType(contentType);
+    if (!extensionMatches || !contentTypeMatches) {
+      throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "File name or type does not match its content");
+    }
+    return format;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
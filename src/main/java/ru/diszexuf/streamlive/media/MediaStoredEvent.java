@@ -0,0 +1,6 @@
+package ru.diszexuf.streamlive.media;
+
+import java.nio.file.Path;
+
+public record MediaStoredEvent(MediaKind kind, Path file) {
+}
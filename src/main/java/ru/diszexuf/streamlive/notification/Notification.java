@@ -12,7 +12,13 @@ import java.util.UUID;
 @Entity
 @Getter
 @Setter
-@Table(name = "notifications")
+@Table(
+        name = "notifications",
+        indexes = {
+                @Index(name = "idx_notifications_consumer_created_at_id", columnList = "consumers_id, created_at, id"),
+                @Index(name = "idx_notifications_consumer_is_read", columnList = "consumers_id, is_read")
+        }
+)
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -20,10 +26,11 @@ public class Notification {
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "consumers_id", nullable = false, foreignKey = @ForeignKey(name = "fk_notification_consumer"))
     private User consumers;
 
-    @Enumerated(EnumType.STRING)
-    private NotificationType type;
+    @Column(name = "stream_id")
+    private UUID streamId;
 
     @Column(name = "message")
     private String message;
@@ -31,7 +38,7 @@ public class Notification {
     @Column(name = "is_read")
     private boolean isRead;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     @CreatedDate
     private LocalDateTime createdAt;
 
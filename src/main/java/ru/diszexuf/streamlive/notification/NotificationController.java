@@ -0,0 +1,42 @@
+package ru.diszexuf.streamlive.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.diszexuf.streamlive.api.NotificationsApi;
+import ru.diszexuf.streamlive.model.MarkNotificationsReadRequestDto;
+import ru.diszexuf.streamlive.model.NotificationResponseDto;
+import ru.diszexuf.streamlive.model.UnreadNotificationCountDto;
+import ru.diszexuf.streamlive.notification.useCases.GetNotificationsUseCase;
+import ru.diszexuf.streamlive.notification.useCases.GetUnreadNotificationCountUseCase;
+import ru.diszexuf.streamlive.notification.useCases.MarkNotificationsReadUseCase;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin
+public class NotificationController implements NotificationsApi {
+
+    private final GetNotificationsUseCase getNotificationsUseCase;
+    private final GetUnreadNotificationCountUseCase getUnreadNotificationCountUseCase;
+    private final MarkNotificationsReadUseCase markNotificationsReadUseCase;
+
+    @Override
+    public ResponseEntity<List<NotificationResponseDto>> getNotifications(String cursor, Integer limit) {
+        return getNotificationsUseCase.execute(cursor, limit).toResponse();
+    }
+
+    @Override
+    public ResponseEntity<UnreadNotificationCountDto> getUnreadNotificationCount() {
+        return ResponseEntity.ok(getUnreadNotificationCountUseCase.execute());
+    }
+
+    @Override
+    public ResponseEntity<UnreadNotificationCountDto> markNotificationsRead(MarkNotificationsReadRequestDto markNotificationsReadRequestDto) {
+        return ResponseEntity.ok(markNotificationsReadUseCase.execute(markNotificationsReadRequestDto));
+    }
+}
@@ -0,0 +1,145 @@
+package ru.diszexuf.streamlive.notification;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.diszexuf.streamlive.common.WorkerThreads;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+import ru.diszexuf.streamlive.stream.StreamStartedEvent;
+
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a {@link NotificationType#STREAM_STARTED} notification for every follower of a channel
+ * that goes live.
+ * <p>
+ * Runs after the stream transaction commits, on a small pool with a bounded job queue; when the
+ * queue is full the fan-out is dropped with a warning rather than blocking the caller. Followers
+ * are read in keyset-paginated chunks and each chunk is written with one JDBC batch in its own
+ * short transaction, so a channel with a million followers holds a single connection at a time
+ * and never for longer than one chunk. Unread counters are adjusted once a chunk has committed.
+ */
+@Component
+@Slf4j
+public class NotificationFanout {
+
+  private static final UUID MIN_UUID = new UUID(0, 0);
+  private static final int MAX_MESSAGE_LENGTH = 255;
+
+  private static final String FOLLOWERS_SQL = """
+      SELECT follower_id FROM follows
+      WHERE following_id = ? AND follower_id > ?
+      ORDER BY follower_id
+      LIMIT ?""";
+
+  private static final String INSERT_SQL = """
+      INSERT INTO notifications (id, consumers_id, notification_type, stream_id, message, is_read, created_at)
+      VALUES (?, ?, ?, ?, ?, false, ?)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final UnreadNotificationCounter unreadNotificationCounter;
+  private final int chunkSize;
+  private final ThreadPoolExecutor executor;
+
+  public NotificationFanout(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            UnreadNotificationCounter unreadNotificationCounter,
+                            @Value("${streamlive.notifications.fanout.workers}") int workers,
+                            @Value("${streamlive.notifications.fanout.queue-capacity}") int queueCapacity,
+                            @Value("${streamlive.notifications.fanout.chunk-size}") int chunkSize,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.unreadNotificationCounter = unreadNotificationCounter;
+    this.chunkSize = chunkSize;
+    this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.blockingIo("notification-fanout", virtualThreads));
+  }
+
+  public int backlog() {
+    return executor.getQueue().size();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamStarted(StreamStartedEvent event) {
+    StreamResponseDto stream = event.stream();
+    try {
+      executor.execute(() -> {
+        try {
+          fanOut(stream.getUserId(), stream.getId(), stream.getTitle());
+        } catch (DataAccessException e) {
+          log.error("Notification fan-out for stream {} failed", stream.getId(), e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.warn("Notification fan-out queue is full, no notifications for stream {}", stream.getId());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    executor.shutdownNow();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  private void fanOut(UUID channelId, UUID streamId, String title) {
+    long startedAt = System.nanoTime();
+    String message = message(channelId, title);
+    Timestamp createdAt = Timestamp.valueOf(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime());
+    UUID after = MIN_UUID;
+    long written = 0;
+    while (!Thread.currentThread().isInterrupted()) {
+      UUID from = after;
+      List<UUID> followers = transactionTemplate.execute(status -> writeChunk(channelId, from, streamId, message, createdAt));
+      if (followers == null || followers.isEmpty()) {
+        break;
+      }
+      unreadNotificationCounter.added(followers);
+      written += followers.size();
+      if (followers.size() < chunkSize) {
+        break;
+      }
+      after = followers.get(followers.size() - 1);
+    }
+    log.info("Stream {} started: {} notifications written in {} ms",
+        streamId, written, (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+  /**
+   * @return the followers after {@code after} that were notified, at most {@code chunkSize} of them
+   */
+  private List<UUID> writeChunk(UUID channelId, UUID after, UUID streamId, String message, Timestamp createdAt) {
+    List<UUID> followers = jdbcTemplate.queryForList(FOLLOWERS_SQL, UUID.class, channelId, after, chunkSize);
+    if (followers.isEmpty()) {
+      return followers;
+    }
+    List<Object[]> batch = new ArrayList<>(followers.size());
+    for (UUID followerId : followers) {
+      batch.add(new Object[]{UUID.randomUUID(), followerId, NotificationType.STREAM_STARTED.name(), streamId, message, createdAt});
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    return followers;
+  }
+
+  private String message(UUID channelId, String title) {
+    List<String> usernames = jdbcTemplate.queryForList("SELECT username FROM users WHERE id = ?", String.class, channelId);
+    String channel = usernames.isEmpty() ? "A channel you follow" : usernames.get(0);
+    String message = title == null || title.isBlank() ? channel + " is live" : channel + " is live: " + title;
+    return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+  }
+}
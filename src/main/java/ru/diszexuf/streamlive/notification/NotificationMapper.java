@@ -0,0 +1,25 @@
+package ru.diszexuf.streamlive.notification;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.diszexuf.streamlive.common.CommonMapper;
+import ru.diszexuf.streamlive.model.NotificationResponseDto;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Mapper(config = CommonMapper.class)
+public interface NotificationMapper {
+
+  @Mapping(target = "type", source = "notificationType")
+  @Mapping(target = "isRead", source = "read")
+  NotificationResponseDto toDto(Notification notification);
+
+  List<NotificationResponseDto> toDtos(List<Notification> notifications);
+
+  default OffsetDateTime toOffsetDateTime(LocalDateTime dateTime) {
+    return dateTime == null ? null : dateTime.atOffset(ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,40 @@
+package ru.diszexuf.streamlive.notification;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+  @Query("""
+      SELECT n FROM Notification n
+      WHERE n.consumers.id = :userId
+        AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))
+      ORDER BY n.createdAt DESC, n.id DESC""")
+  List<Notification> findPage(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") UUID id, Limit limit);
+
+  @Query("SELECT COUNT(n) FROM Notification n WHERE n.consumers.id = :userId AND n.isRead = false")
+  long countUnread(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query("UPDATE Notification n SET n.isRead = true WHERE n.consumers.id = :userId AND n.isRead = false")
+  int markAllRead(@Param("userId") UUID userId);
+
+  @Modifying
+  @Query("""
+      UPDATE Notification n SET n.isRead = true
+      WHERE n.consumers.id = :userId AND n.isRead = false AND n.id IN :ids""")
+  int markRead(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+
+  @Modifying
+  @Query("DELETE FROM Notification n WHERE n.consumers.id = :userId")
+  int deleteAllOf(@Param("userId") UUID userId);
+}
@@ -0,0 +1,91 @@
+package ru.diszexuf.streamlive.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.user.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Unread notification count per user, so the header badge does not run {@code COUNT(*)} on every
+ * page.
+ * <p>
+ * A count is loaded from the database on first use and then adjusted in place: fan-out batches add
+ * to the counts of users that are cached, marking as read subtracts the number of rows it updated.
+ * Users that are not cached are left alone and load the exact count next time. An adjustment racing
+ * the initial load can be counted twice, so entries expire {@code ttl} after loading, however often
+ * they were adjusted since, and are reloaded.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+  private final NotificationRepository notificationRepository;
+  private final Cache<UUID, Long> counts;
+
+  public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${streamlive.notifications.unread-counters.size}") long size,
+                                   @Value("${streamlive.notifications.unread-counters.ttl}") Duration ttl) {
+    this.notificationRepository = notificationRepository;
+    this.counts = Caffeine.newBuilder()
+        .maximumSize(size)
+        .expireAfter(new ExpireAfterLoad(ttl.toNanos()))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, counts, "unread_notifications");
+  }
+
+  public long get(UUID userId) {
+    return counts.get(userId, notificationRepository::countUnread);
+  }
+
+  public void added(Collection<UUID> userIds) {
+    for (UUID userId : userIds) {
+      counts.asMap().computeIfPresent(userId, (key, count) -> count + 1);
+    }
+  }
+
+  public void read(UUID userId, int marked) {
+    if (marked > 0) {
+      counts.asMap().computeIfPresent(userId, (key, count) -> Math.max(count - marked, 0));
+    }
+  }
+
+  public void evict(UUID userId) {
+    counts.invalidate(userId);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    evict(event.userId());
+  }
+
+  /**
+   * Fixes an entry's lifetime when it is loaded; in-place adjustments and reads keep it.
+   */
+  private record ExpireAfterLoad(long ttlNanos) implements Expiry<UUID, Long> {
+
+    @Override
+    public long expireAfterCreate(UUID userId, Long count, long currentTime) {
+      return ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(UUID userId, Long count, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(UUID userId, Long count, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
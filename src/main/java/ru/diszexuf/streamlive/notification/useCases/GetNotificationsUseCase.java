@@ -0,0 +1,40 @@
+package ru.diszexuf.streamlive.notification.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.common.KeysetPage;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.notification.Notification;
+import ru.diszexuf.streamlive.notification.NotificationMapper;
+import ru.diszexuf.streamlive.notification.NotificationRepository;
+import ru.diszexuf.streamlive.model.NotificationResponseDto;
+import ru.diszexuf.streamlive.security.UserDetailsImpl;
+
+import java.util.List;
+
+@UseCase
+@RequiredArgsConstructor
+@Transactional
+public class GetNotificationsUseCase {
+  private final NotificationRepository notificationRepository;
+  private final NotificationMapper notificationMapper;
+
+  public KeysetPage<NotificationResponseDto> execute(String cursor, Integer limit) {
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    KeysetCursor position = KeysetCursor.decode(cursor);
+    int size = KeysetPage.size(limit);
+    List<Notification> rows = notificationRepository.findPage(
+        principal.getId(), position.at(), position.id(), Limit.of(size + 1));
+
+    List<Notification> page = rows.size() > size ? rows.subList(0, size) : rows;
+    String nextCursor = null;
+    if (rows.size() > size) {
+      Notification last = page.get(page.size() - 1);
+      nextCursor = KeysetCursor.of(last.getCreatedAt(), last.getId()).encode();
+    }
+    return new KeysetPage<>(notificationMapper.toDtos(page), nextCursor);
+  }
+}
@@ -0,0 +1,19 @@
+package ru.diszexuf.streamlive.notification.useCases;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.model.UnreadNotificationCountDto;
+import ru.diszexuf.streamlive.notification.UnreadNotificationCounter;
+import ru.diszexuf.streamlive.security.UserDetailsImpl;
+
+@UseCase
+@RequiredArgsConstructor
+public class GetUnreadNotificationCountUseCase {
+  private final UnreadNotificationCounter unreadNotificationCounter;
+
+  public UnreadNotificationCountDto execute() {
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    return new UnreadNotificationCountDto().unreadCount(unreadNotificationCounter.get(principal.getId()));
+  }
+}
@@ -0,0 +1,38 @@
+package ru.diszexuf.streamlive.notification.useCases;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.model.MarkNotificationsReadRequestDto;
+import ru.diszexuf.streamlive.model.UnreadNotificationCountDto;
+import ru.diszexuf.streamlive.notification.NotificationRepository;
+import ru.diszexuf.streamlive.notification.UnreadNotificationCounter;
+import ru.diszexuf.streamlive.security.UserDetailsImpl;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Marks notifications as read with one set-based update. The unread counter is adjusted by the
+ * number of rows changed once the update has committed.
+ */
+@UseCase
+@RequiredArgsConstructor
+public class MarkNotificationsReadUseCase {
+  private final NotificationRepository notificationRepository;
+  private final UnreadNotificationCounter unreadNotificationCounter;
+  private final TransactionTemplate transactionTemplate;
+
+  public UnreadNotificationCountDto execute(MarkNotificationsReadRequestDto request) {
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    UUID userId = principal.getId();
+    List<UUID> ids = request == null ? null : request.getIds();
+
+    Integer marked = transactionTemplate.execute(status -> ids == null || ids.isEmpty()
+        ? notificationRepository.markAllRead(userId)
+        : notificationRepository.markRead(userId, ids));
+    unreadNotificationCounter.read(userId, marked == null ? 0 : marked);
+    return new UnreadNotificationCountDto().unreadCount(unreadNotificationCounter.get(userId));
+  }
+}
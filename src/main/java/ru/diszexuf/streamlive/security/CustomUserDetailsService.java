@@ -1,33 +1,87 @@
 package ru.diszexuf.streamlive.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.user.StreamKeyResetEvent;
+import ru.diszexuf.streamlive.user.UserDeletedEvent;
 import ru.diszexuf.streamlive.user.UserRepository;
+import ru.diszexuf.streamlive.user.UserUpdatedEvent;
 
+import java.time.Duration;
 import java.util.stream.Collectors;
 
+/**
+ * Loads principals for the JWT filter and the login flow.
+ * <p>
+ * Principals are cached by username, bounded in size and expired after {@code ttl}; user updates,
+ * stream key resets and deletions evict the entry as soon as their transaction commits.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
   private final UserRepository userRepository;
+  private final Cache<String, UserDetails> principals;
 
-  public CustomUserDetailsService(UserRepository userRepository) {
+  public CustomUserDetailsService(UserRepository userRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${streamlive.security.principal-cache.size}") long cacheSize,
+                                  @Value("${streamlive.security.principal-cache.ttl}") Duration cacheTtl) {
     this.userRepository = userRepository;
+    this.principals = Caffeine.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfterWrite(cacheTtl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
   }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    UserDetails principal = principals.get(username, this::load);
+    if (principal == null) {
+      throw new UsernameNotFoundException("User not found");
+    }
+    return principal;
+  }
+
+  public void evict(String username) {
+    principals.invalidate(username);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserUpdated(UserUpdatedEvent event) {
+    evict(event.username());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamKeyReset(StreamKeyResetEvent event) {
+    evict(event.username());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    evict(event.username());
+  }
+
+  private UserDetails load(String username) {
     return userRepository.findByUsername(username)
         .map(user -> new UserDetailsImpl(
+            user.getId(),
             user.getUsername(),
             user.getPassword(),
             user.getAuthorities().stream()
-                .map(SimpleGrantedAuthority::new)
+                .map(authority -> new SimpleGrantedAuthority(authority.name()))
                 .collect(Collectors.toList())
         ))
-        .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        .orElse(null);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package ru.diszexuf.streamlive.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Admits the nginx-rtmp callbacks under {@code /api/ingest/} only when they carry the shared
+ * {@code secret} parameter. nginx-rtmp cannot set headers on its callbacks, so the secret is part of
+ * the {@code on_publish} / {@code on_publish_done} URLs in the nginx configuration.
+ */
+@Component
+@Slf4j
+public class IngestCallbackFilter extends OncePerRequestFilter {
+
+  private static final String INGEST_PATH = "/api/ingest/";
+  private static final String SECRET_PARAMETER = "secret";
+
+  private final byte[] secret;
+
+  public IngestCallbackFilter(@Value("${streamlive.ingest.callback-secret}") String secret) {
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith(INGEST_PATH);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String presented = request.getParameter(SECRET_PARAMETER);
+    if (secret.length == 0 || presented == null
+        || !MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+      log.warn("Ingest callback {} from {} refused: bad secret", request.getRequestURI(), request.getRemoteAddr());
+      response.sendError(HttpServletResponse.SC_FORBIDDEN);
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+}
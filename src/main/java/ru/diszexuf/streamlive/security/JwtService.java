@@ -1,32 +1,45 @@
 package ru.diszexuf.streamlive.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens.
+ * <p>
+ * A token is parsed and its signature checked once; the result is kept in a bounded cache until the
+ * token expires, so further requests with the same bearer token skip signature verification.
+ */
 @Service
 public class JwtService {
 
   private final SecretKey secretKey;
+  private final JwtParser parser;
+  private final Cache<String, VerifiedToken> verifiedTokens;
 
-  public JwtService() {
+  public JwtService(@Value("${streamlive.security.jwt.token-cache-size}") long tokenCacheSize) {
     this.secretKey = Keys.hmacShaKeyFor("my-secret-key-12345-my-secret-key-12345".getBytes()); // todo: вынести в .env
-  }
-
-  public String extractUsername(String token) {
-    return extractClaim(token, Claims::getSubject);
-  }
-
-  public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
-    return claimsResolver.apply(claims);
+    this.parser = Jwts.parserBuilder()
+        .setSigningKey(secretKey)
+        .build();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(tokenCacheSize)
+        .expireAfter(new UntilTokenExpires())
+        .build();
   }
 
   public String generateToken(UserDetails userDetails) {
@@ -38,24 +51,54 @@ public class JwtService {
         .compact();
   }
 
-  public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-  }
+  /**
+   * @return the verified claims of {@code token}, or {@code null} when it is malformed, forged or expired
+   */
+  public VerifiedToken verify(String token) {
+    Instant now = Instant.now();
+    VerifiedToken cached = verifiedTokens.getIfPresent(token);
+    if (cached != null) {
+      return cached.isExpired(now) ? null : cached;
+    }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+    VerifiedToken verified = parse(token);
+    if (verified == null || verified.isExpired(now)) {
+      return null;
+    }
+    if (verified.expiresAt() != null) {
+      verifiedTokens.put(token, verified);
+    }
+    return verified;
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  /**
+   * Parses and checks the signature of {@code token} without consulting the cache.
+   */
+  public VerifiedToken parse(String token) {
+    try {
+      Claims claims = parser.parseClaimsJws(token).getBody();
+      Date expiration = claims.getExpiration();
+      return new VerifiedToken(claims.getSubject(), expiration == null ? null : expiration.toInstant());
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(secretKey)
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+  private static final class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+
+    @Override
+    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+      return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+      return expireAfterCreate(token, verified, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
-}
\ No newline at end of file
+}
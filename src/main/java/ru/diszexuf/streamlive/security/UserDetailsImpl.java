@@ -4,18 +4,25 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.UUID;
 
 public class UserDetailsImpl implements UserDetails {
+  private final UUID id;
   private final String username;
   private final String password;
   private final Collection<? extends GrantedAuthority> authorities;
 
-  public UserDetailsImpl(String username, String password, Collection<? extends GrantedAuthority> authorities) {
+  public UserDetailsImpl(UUID id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+    this.id = id;
     this.username = username;
     this.password = password;
     this.authorities = authorities;
   }
 
+  public UUID getId() {
+    return id;
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return authorities;
@@ -0,0 +1,13 @@
+package ru.diszexuf.streamlive.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature has been checked.
+ */
+public record VerifiedToken(String username, Instant expiresAt) {
+
+  public boolean isExpired(Instant now) {
+    return expiresAt != null && !expiresAt.isAfter(now);
+  }
+}
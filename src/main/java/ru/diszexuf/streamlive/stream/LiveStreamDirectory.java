@@ -0,0 +1,203 @@
+package ru.diszexuf.streamlive.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.common.ResourceVersion;
+import ru.diszexuf.streamlive.media.MediaDerivativesReadyEvent;
+import ru.diszexuf.streamlive.media.MediaKind;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process view of the streams that are live right now, so the homepage listing
+ * is served without touching the database.
+ * <p>
+ * Kept up to date by the stream lifecycle events once their transaction commits and
+ * periodically reconciled against the {@code streams} table. Ended streams leave a
+ * tombstone until the next reconciliation so a pass that read the table before the
+ * stream ended cannot bring it back.
+ * <p>
+ * Published DTOs are never modified: a change replaces the entry with an updated copy, because
+ * request threads may be serializing the old instance at the same time.
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveStreamDirectory {
+
+  private static final Comparator<StreamResponseDto> NEWEST_FIRST = Comparator.comparing(
+      StreamResponseDto::getStartedAt, Comparator.nullsLast(Comparator.<OffsetDateTime>reverseOrder()));
+
+  private final StreamMapper streamMapper;
+
+  private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+  private final AtomicLong version = new AtomicLong();
+
+  private final long epoch = System.currentTimeMillis();
+
+  private volatile long lastModified = epoch;
+
+  private volatile Snapshot snapshot = new Snapshot(-1, List.of());
+
+  public List<StreamResponseDto> list() {
+    long current = version.get();
+    Snapshot cached = snapshot;
+    if (cached.version() != current) {
+      List<StreamResponseDto> streams = entries.values().stream()
+          .map(Entry::stream)
+          .filter(Objects::nonNull)
+          .sorted(NEWEST_FIRST)
+          .toList();
+      cached = new Snapshot(current, streams);
+      snapshot = cached;
+    }
+    return cached.streams();
+  }
+
+  /**
+   * @return the live stream with {@code streamId}, or {@code null} when it is not live
+   */
+  public StreamResponseDto get(UUID streamId) {
+    Entry entry = entries.get(streamId);
+    return entry == null ? null : entry.stream();
+  }
+
+  /**
+   * Validators of {@link #list()}. Read them before the list: the list is then at least as new as
+   * the ETag sent with it.
+   */
+  public ResourceVersion resourceVersion() {
+    long current = version.get();
+    return ResourceVersion.of(Instant.ofEpochMilli(lastModified), epoch, current);
+  }
+
+  public boolean isLive(UUID streamId) {
+    Entry entry = entries.get(streamId);
+    return entry != null && entry.stream() != null;
+  }
+
+  /**
+   * Adds or replaces a live stream. A stream already listed keeps its viewer count, which only
+   * {@link ViewerCountChangedEvent}s move.
+   */
+  public void put(StreamResponseDto stream) {
+    entries.compute(stream.getId(), (id, existing) -> {
+      StreamResponseDto listed = existing == null ? null : existing.stream();
+      if (listed != null && !Objects.equals(listed.getViewerCount(), stream.getViewerCount())) {
+        return new Entry(streamMapper.copy(stream).viewerCount(listed.getViewerCount()), System.nanoTime());
+      }
+      return new Entry(stream, System.nanoTime());
+    });
+    changed();
+  }
+
+  public void updateViewerCount(UUID streamId, int viewerCount) {
+    boolean[] updated = new boolean[1];
+    entries.computeIfPresent(streamId, (id, entry) -> {
+      StreamResponseDto stream = entry.stream();
+      if (stream == null || Integer.valueOf(viewerCount).equals(stream.getViewerCount())) {
+        return entry;
+      }
+      updated[0] = true;
+      return new Entry(streamMapper.copy(stream).viewerCount(viewerCount), System.nanoTime());
+    });
+    if (updated[0]) {
+      changed();
+    }
+  }
+
+  public void remove(UUID streamId) {
+    entries.put(streamId, new Entry(null, System.nanoTime()));
+    changed();
+  }
+
+  /**
+   * Replaces the directory with the live streams read from the database.
+   * Entries touched after {@code readStartedAt} are newer than the database read and are kept as is.
+   */
+  public void reconcile(Collection<StreamResponseDto> liveStreams, long readStartedAt) {
+    Map<UUID, StreamResponseDto> fresh = liveStreams.stream()
+        .collect(Collectors.toMap(StreamResponseDto::getId, Function.identity(), (a, b) -> b));
+
+    entries.entrySet().removeIf(e -> e.getValue().touchedAt() < readStartedAt && !fresh.containsKey(e.getKey()));
+    fresh.forEach((id, stream) -> entries.compute(id, (key, existing) ->
+        existing != null && existing.touchedAt() >= readStartedAt ? existing : new Entry(stream, readStartedAt)));
+    changed();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamStarted(StreamStartedEvent event) {
+    put(event.stream());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamUpdated(StreamUpdatedEvent event) {
+    if (Boolean.TRUE.equals(event.stream().getIsLive())) {
+      put(event.stream());
+    }
+  }
+
+  /**
+   * Runs before the other listeners of the event, so viewer bookkeeping is only dropped once the
+   * stream is off the list; see {@link ViewerPresenceTracker#heartbeat}.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onStreamEnded(StreamEndedEvent event) {
+    remove(event.streamId());
+  }
+
+  @EventListener
+  public void onViewerCountChanged(ViewerCountChangedEvent event) {
+    updateViewerCount(event.streamId(), event.viewerCount());
+  }
+
+  @EventListener
+  public void onMediaDerivativesReady(MediaDerivativesReadyEvent event) {
+    if (event.kind() != MediaKind.THUMBNAIL) {
+      return;
+    }
+    boolean[] updated = new boolean[1];
+    for (UUID streamId : entries.keySet()) {
+      entries.computeIfPresent(streamId, (id, entry) -> {
+        StreamResponseDto stream = entry.stream();
+        if (stream == null || !event.url().equals(stream.getThumbnailUrl())) {
+          return entry;
+        }
+        updated[0] = true;
+        return new Entry(streamMapper.copy(stream).thumbnailVariants(new HashMap<>(event.variants())), System.nanoTime());
+      });
+    }
+    if (updated[0]) {
+      changed();
+    }
+  }
+
+  private void changed() {
+    lastModified = System.currentTimeMillis();
+    version.incrementAndGet();
+  }
+
+  private record Entry(StreamResponseDto stream, long touchedAt) {
+  }
+
+  private record Snapshot(long version, List<StreamResponseDto> streams) {
+  }
+}
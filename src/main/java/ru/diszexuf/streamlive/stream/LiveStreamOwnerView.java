@@ -0,0 +1,9 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.util.UUID;
+
+public interface LiveStreamOwnerView {
+  UUID getStreamId();
+
+  UUID getUserId();
+}
@@ -5,6 +5,7 @@ import lombok.*;
 import ru.diszexuf.streamlive.common.CoreEntity;
 import ru.diszexuf.streamlive.user.User;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.UUID;
 
@@ -12,8 +13,9 @@ import java.util.UUID;
 @Table(
         name = "streams",
         schema = "public",
-        uniqueConstraints = {
-                @UniqueConstraint(name = "", columnNames = {""})
+        indexes = {
+                @Index(name = "idx_streams_started_at_id", columnList = "started_at, id"),
+                @Index(name = "idx_streams_user_started_at_id", columnList = "user_id, started_at, id")
         }
 )
 @Getter
@@ -52,10 +54,20 @@ public class Stream extends CoreEntity {
     @Column(name = "is_live", nullable = false)
     private Boolean isLive;
 
-    @Column(name = "viewers_count", nullable = false)
+    /**
+     * Written only by {@link ViewerCounter}; JPA inserts the initial value but never updates it, so
+     * saving a stream loaded before a flush cannot roll the count back.
+     */
+    @Column(name = "viewers_count", nullable = false, updatable = false)
     private Integer viewersCount;
 
-    @OneToOne
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "ended_at")
+    private LocalDateTime endedAt;
+
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "stream_metadata_id")
     private StreamMetadata streamMetadata;
 
@@ -2,13 +2,22 @@ package ru.diszexuf.streamlive.stream;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.diszexuf.streamlive.api.StreamsApi;
+import ru.diszexuf.streamlive.common.ConditionalGet;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
+import ru.diszexuf.streamlive.model.ViewerHeartbeatRequestDto;
+import ru.diszexuf.streamlive.model.ViewerHeartbeatResponseDto;
 import ru.diszexuf.streamlive.stream.useCases.*;
 
 import java.util.List;
@@ -25,10 +34,14 @@ public class StreamController implements StreamsApi {
     private final DeleteStreamUseCase deleteStreamUseCase;
     private final GetAllStreamsUseCase getAllStreamsUseCase;
     private final GetLiveStreamsUseCase getLiveStreamsUseCase;
+    private final GetFollowedLiveStreamsUseCase getFollowedLiveStreamsUseCase;
     private final GetStreamByIdUseCase getStreamByIdUseCase;
+    private final GetStreamVersionUseCase getStreamVersionUseCase;
     private final GetStreamsByUserUseCase getStreamsByUserUseCase;
     private final SearchStreamsUseCase searchStreamsUseCase;
     private final UpdateStreamUseCase updateStreamUseCase;
+    private final RecordViewerHeartbeatUseCase recordViewerHeartbeatUseCase;
+    private final SubscribeToStreamEventsUseCase subscribeToStreamEventsUseCase;
 
     @Override
     public ResponseEntity<StreamResponseDto> createStream(String title, String description, MultipartFile thumbnailUrl) {
@@ -42,33 +55,67 @@ public class StreamController implements StreamsApi {
     }
 
     @Override
-    public ResponseEntity<List<StreamResponseDto>> getAllStreams() {
-        return ResponseEntity.ok(getAllStreamsUseCase.execute());
+    public ResponseEntity<List<StreamResponseDto>> getAllStreams(String cursor, Integer limit) {
+        return getAllStreamsUseCase.execute(cursor, limit).toResponse();
     }
 
     @Override
     public ResponseEntity<List<StreamResponseDto>> getLiveStreams() {
+        if (ConditionalGet.notModified(getLiveStreamsUseCase.version())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         var streams = getLiveStreamsUseCase.execute();
         return ResponseEntity.ok(streams);
     }
 
+    @Override
+    public ResponseEntity<List<StreamResponseDto>> getFollowedLiveStreams() {
+        return ResponseEntity.ok(getFollowedLiveStreamsUseCase.execute());
+    }
+
     @Override
     public ResponseEntity<StreamResponseDto> getStreamById(UUID streamId) {
+        if (ConditionalGet.notModified(getStreamVersionUseCase.execute(streamId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(getStreamByIdUseCase.execute(streamId));
     }
 
     @Override
-    public ResponseEntity<List<StreamResponseDto>> getStreamsByUser(UUID userId) {
-        return ResponseEntity.ok(getStreamsByUserUseCase.execute(userId));
+    public ResponseEntity<List<StreamResponseDto>> getStreamsByUser(UUID userId, String cursor, Integer limit) {
+        return getStreamsByUserUseCase.execute(userId, cursor, limit).toResponse();
+    }
+
+    @Override
+    public ResponseEntity<List<StreamResponseDto>> searchStreams(String query, String cursor, Integer limit) {
+        return searchStreamsUseCase.execute(query, cursor, limit).toResponse();
     }
 
     @Override
-    public ResponseEntity<List<StreamResponseDto>> searchStreams(String query) {
-        return ResponseEntity.ok(searchStreamsUseCase.execute(query));
+    public ResponseEntity<ViewerHeartbeatResponseDto> sendViewerHeartbeat(UUID streamId, ViewerHeartbeatRequestDto viewerHeartbeatRequestDto) {
+        return ResponseEntity.ok(recordViewerHeartbeatUseCase.execute(streamId, viewerHeartbeatRequestDto.getSessionId(), clientAddress()));
+    }
+
+    /**
+     * Server-Sent Events feed of live directory changes. Not part of openapi.yaml: the generator
+     * has no representation for an event stream.
+     */
+    @GetMapping(value = "/streams/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return subscribeToStreamEventsUseCase.execute();
     }
 
     @Override
     public ResponseEntity<StreamResponseDto> updateStream(String title, String description, MultipartFile thumbnailUrl) {
         return ResponseEntity.ok(updateStreamUseCase.execute(title, description, thumbnailUrl));
     }
+
+    /**
+     * The peer address of the current request; behind a reverse proxy this is the client only when
+     * {@code server.forward-headers-strategy} is configured.
+     */
+    private static String clientAddress() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        return attributes.getRequest().getRemoteAddr();
+    }
 }
@@ -0,0 +1,6 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.util.UUID;
+
+public record StreamEndedEvent(UUID streamId, UUID userId) {
+}
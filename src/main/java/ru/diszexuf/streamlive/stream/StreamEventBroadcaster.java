@@ -0,0 +1,286 @@
+package ru.diszexuf.streamlive.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.diszexuf.streamlive.common.WorkerThreads;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes live directory changes to every connected client over Server-Sent Events.
+ * <p>
+ * Changes are collected per stream and coalesced until the next tick: a stream that started and
+ * was retitled within one tick is announced once, with its latest state, and only the last viewer
+ * count of a tick is sent. Each tick serializes its batch once and hands the same payload to all
+ * subscribers, so the cost of a tick does not depend on how many clients are listening.
+ * <p>
+ * The scheduler thread never writes to a connection. Every subscriber has its own queue, drained by
+ * one task at a time on a dedicated pool, so a slow client delays only itself. A subscriber that
+ * falls {@code max-pending} events behind, or whose current write has been blocked for longer than
+ * {@code send-timeout}, is completed with an error and dropped; the client reconnects and reloads
+ * the directory.
+ */
+@Component
+@Slf4j
+public class StreamEventBroadcaster {
+
+  private static final String CHANGES_EVENT = "changes";
+
+  private final ObjectMapper objectMapper;
+  private final long emitterTimeoutMillis;
+  private final long keepaliveNanos;
+  private final int maxSubscribers;
+  private final long sendTimeoutNanos;
+  private final int maxPending;
+  private final ThreadPoolExecutor executor;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final Map<UUID, StreamChange> lifecycle = new ConcurrentHashMap<>();
+  private final Map<UUID, Integer> viewerCounts = new ConcurrentHashMap<>();
+  private long lastSentAt = System.nanoTime();
+
+  public StreamEventBroadcaster(ObjectMapper objectMapper,
+                                @Value("${streamlive.events.emitter-timeout}") Duration emitterTimeout,
+                                @Value("${streamlive.events.keepalive}") Duration keepalive,
+                                @Value("${streamlive.events.max-subscribers}") int maxSubscribers,
+                                @Value("${streamlive.events.send-timeout}") Duration sendTimeout,
+                                @Value("${streamlive.events.max-pending}") int maxPending,
+                                @Value("${streamlive.events.send-workers}") int sendWorkers,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    this.objectMapper = objectMapper;
+    this.emitterTimeoutMillis = emitterTimeout.toMillis();
+    this.keepaliveNanos = keepalive.toNanos();
+    this.maxSubscribers = maxSubscribers;
+    this.sendTimeoutNanos = sendTimeout.toNanos();
+    this.maxPending = maxPending;
+    this.executor = new ThreadPoolExecutor(sendWorkers, sendWorkers, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(maxSubscribers), WorkerThreads.blockingIo("sse-send", virtualThreads));
+  }
+
+  public SseEmitter subscribe() {
+    if (subscribers.size() >= maxSubscribers) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+    }
+    SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(error -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    return emitter;
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamStarted(StreamStartedEvent event) {
+    lifecycle.put(event.stream().getId(), StreamChange.started(event.stream()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamUpdated(StreamUpdatedEvent event) {
+    if (!Boolean.TRUE.equals(event.stream().getIsLive())) {
+      return;
+    }
+    lifecycle.merge(event.stream().getId(), StreamChange.updated(event.stream()), (previous, next) ->
+        switch (previous.type()) {
+          case STARTED -> StreamChange.started(event.stream());
+          case ENDED -> previous;
+          default -> next;
+        });
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamEnded(StreamEndedEvent event) {
+    lifecycle.put(event.streamId(), StreamChange.ended(event.streamId()));
+    viewerCounts.remove(event.streamId());
+  }
+
+  @EventListener
+  public void onViewerCountChanged(ViewerCountChangedEvent event) {
+    viewerCounts.put(event.streamId(), event.viewerCount());
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    executor.shutdownNow();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Scheduled(fixedDelayString = "${streamlive.events.tick}")
+  public void tick() {
+    List<StreamChange> changes = drain();
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    dropStalled();
+    if (changes.isEmpty()) {
+      if (System.nanoTime() - lastSentAt >= keepaliveNanos) {
+        broadcast(SseEmitter.event().comment("keepalive").build());
+      }
+      return;
+    }
+
+    String payload;
+    try {
+      payload = objectMapper.writeValueAsString(changes);
+    } catch (JsonProcessingException e) {
+      log.error("Failed to serialize {} stream changes", changes.size(), e);
+      return;
+    }
+    broadcast(SseEmitter.event().name(CHANGES_EVENT).data(payload, MediaType.APPLICATION_JSON).build());
+  }
+
+  private List<StreamChange> drain() {
+    List<StreamChange> changes = new ArrayList<>();
+    for (UUID streamId : lifecycle.keySet()) {
+      StreamChange change = lifecycle.remove(streamId);
+      if (change != null) {
+        changes.add(change);
+      }
+    }
+    for (UUID streamId : viewerCounts.keySet()) {
+      Integer viewerCount = viewerCounts.remove(streamId);
+      if (viewerCount != null) {
+        changes.add(StreamChange.viewers(streamId, viewerCount));
+      }
+    }
+    return changes;
+  }
+
+  private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    lastSentAt = System.nanoTime();
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offer(event);
+    }
+  }
+
+  private void dropStalled() {
+    long now = System.nanoTime();
+    for (Subscriber subscriber : subscribers) {
+      long sendingSince = subscriber.sendingSince;
+      if (sendingSince != 0 && now - sendingSince > sendTimeoutNanos) {
+        subscriber.drop(new TimeoutException("Event write blocked for more than " + sendTimeoutNanos / 1_000_000 + " ms"));
+      }
+    }
+  }
+
+  /**
+   * One connection and the events not yet written to it. At most one send task per subscriber is
+   * queued or running, so its events are written in order.
+   */
+  private final class Subscriber implements Runnable {
+
+    private final SseEmitter emitter;
+    private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long sendingSince;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+      if (pendingCount.incrementAndGet() > maxPending) {
+        drop(new IllegalStateException("More than " + maxPending + " events pending"));
+        return;
+      }
+      pending.add(event);
+      schedule();
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          scheduled.set(false);
+          drop(e);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        while (subscribers.contains(this) && (event = pending.poll()) != null) {
+          pendingCount.decrementAndGet();
+          sendingSince = System.nanoTime();
+          emitter.send(event);
+          sendingSince = 0;
+        }
+      } catch (Exception e) {
+        drop(e);
+      } finally {
+        sendingSince = 0;
+        scheduled.set(false);
+      }
+      if (!pending.isEmpty() && subscribers.contains(this)) {
+        schedule();
+      }
+    }
+
+    private void drop(Throwable cause) {
+      if (subscribers.remove(this)) {
+        log.debug("Dropping event subscriber: {}", cause.toString());
+        emitter.completeWithError(cause);
+      }
+    }
+  }
+
+  public enum ChangeType {
+    STARTED, UPDATED, ENDED, VIEWERS
+  }
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record StreamChange(ChangeType type, UUID streamId, StreamResponseDto stream, Integer viewerCount) {
+
+    static StreamChange started(StreamResponseDto stream) {
+      return new StreamChange(ChangeType.STARTED, stream.getId(), stream, null);
+    }
+
+    static StreamChange updated(StreamResponseDto stream) {
+      return new StreamChange(ChangeType.UPDATED, stream.getId(), stream, null);
+    }
+
+    static StreamChange ended(UUID streamId) {
+      return new StreamChange(ChangeType.ENDED, streamId, null, null);
+    }
+
+    static StreamChange viewers(UUID streamId, int viewerCount) {
+      return new StreamChange(ChangeType.VIEWERS, streamId, null, viewerCount);
+    }
+  }
+}
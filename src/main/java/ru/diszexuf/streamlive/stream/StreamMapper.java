@@ -0,0 +1,37 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.diszexuf.streamlive.common.CommonMapper;
+import ru.diszexuf.streamlive.media.ImageDerivatives;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Maps streams to their API representation. Callers are expected to load streams through the
+ * {@link StreamRepository} finders that fetch {@code user} and {@code tags} up front.
+ */
+@Mapper(config = CommonMapper.class, uses = {ImageDerivatives.class, ViewerCounter.class})
+public interface StreamMapper {
+
+  @Mapping(target = "userId", source = "user.id")
+  @Mapping(target = "viewerCount", source = "stream", qualifiedByName = "viewerCount")
+  @Mapping(target = "thumbnailVariants", source = "thumbnailUrl", qualifiedByName = "thumbnailVariants")
+  StreamResponseDto toDto(Stream stream);
+
+  List<StreamResponseDto> toDtos(List<Stream> streams);
+
+  /**
+   * Copies a DTO, including its tag list and thumbnail variants, so a published instance is never
+   * mutated while another thread serializes it.
+   */
+  StreamResponseDto copy(StreamResponseDto stream);
+
+  default OffsetDateTime toOffsetDateTime(LocalDateTime dateTime) {
+    return dateTime == null ? null : dateTime.atOffset(ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,50 @@
+package ru.diszexuf.streamlive.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.common.KeysetPage;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Second half of a keyset page: the id query picks the page, this loads the streams with
+ * their associations in one round trip and keeps the id order.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamPageLoader {
+  private final StreamRepository streamRepository;
+  private final StreamMapper streamMapper;
+
+  /**
+   * @param ids  page ids in listing order, fetched with {@code size + 1} to detect a next page
+   * @param size requested page size
+   */
+  public KeysetPage<StreamResponseDto> load(List<UUID> ids, int size) {
+    List<UUID> pageIds = ids.size() > size ? ids.subList(0, size) : ids;
+    if (pageIds.isEmpty()) {
+      return new KeysetPage<>(List.of(), null);
+    }
+
+    Map<UUID, Integer> positions = new HashMap<>();
+    for (int i = 0; i < pageIds.size(); i++) {
+      positions.put(pageIds.get(i), i);
+    }
+    List<Stream> streams = streamRepository.findWithDetailsByIdIn(pageIds).stream()
+        .sorted(Comparator.comparing(stream -> positions.get(stream.getId())))
+        .toList();
+
+    String nextCursor = null;
+    if (ids.size() > size && !streams.isEmpty()) {
+      Stream last = streams.get(streams.size() - 1);
+      nextCursor = new KeysetCursor(Boolean.TRUE.equals(last.getIsLive()), last.getStartedAt(), last.getId()).encode();
+    }
+    return new KeysetPage<>(streamMapper.toDtos(streams), nextCursor);
+  }
+}
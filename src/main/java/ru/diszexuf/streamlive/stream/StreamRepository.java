@@ -1,23 +1,70 @@
 package ru.diszexuf.streamlive.stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.diszexuf.streamlive.user.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface StreamRepository extends JpaRepository<Stream, UUID> {
-  List<Stream> findByUser(User user);
+  @EntityGraph(attributePaths = {"user", "tags"})
+  Optional<Stream> findWithDetailsById(UUID id);
 
+  @EntityGraph(attributePaths = {"user", "tags"})
+  List<Stream> findWithDetailsByIdIn(Collection<UUID> ids);
+
+  /**
+   * At most one row matches: streams are only started under the user row lock taken by
+   * {@code UserRepository.findForUpdateById} / {@code findForUpdateByUsername}.
+   */
+  @EntityGraph(attributePaths = {"user", "tags"})
   Stream findByUserAndIsLiveTrue(User user);
 
+  @EntityGraph(attributePaths = {"user", "tags"})
+  Stream findFirstByUserIdOrderByStartedAtDesc(UUID userId);
+
+  @EntityGraph(attributePaths = {"user", "tags"})
   List<Stream> findByIsLiveTrue();
 
-  List<Stream> findByTitleContainingIgnoreCase(String title);
+  @Query("""
+      SELECT s.id FROM Stream s
+      WHERE s.startedAt < :startedAt OR (s.startedAt = :startedAt AND s.id < :id)
+      ORDER BY s.startedAt DESC, s.id DESC""")
+  List<UUID> findPageIds(@Param("startedAt") LocalDateTime startedAt, @Param("id") UUID id, Limit limit);
+
+  @Query("""
+      SELECT s.id FROM Stream s
+      WHERE s.user.id = :userId
+        AND (s.startedAt < :startedAt OR (s.startedAt = :startedAt AND s.id < :id))
+      ORDER BY s.startedAt DESC, s.id DESC""")
+  List<UUID> findPageIdsByUser(@Param("userId") UUID userId, @Param("startedAt") LocalDateTime startedAt,
+                               @Param("id") UUID id, Limit limit);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT s.id AS streamId, t AS tag FROM Stream s LEFT JOIN s.tags t")
+  java.util.stream.Stream<StreamTagView> streamTagViews();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT s.id AS id, s.title AS title, s.description AS description, s.isLive AS isLive, "
+      + "s.startedAt AS startedAt FROM Stream s")
+  java.util.stream.Stream<StreamSearchView> streamSearchViews();
 
-  @Query("SELECT DISTINCT s FROM Stream s JOIN s.tags t WHERE LOWER(t) = LOWER(:tag)")
-  List<Stream> findByTag(@Param("tag") String tag);
+  @Query("SELECT s.id AS streamId, s.user.id AS userId FROM Stream s WHERE s.isLive = true")
+  List<LiveStreamOwnerView> liveStreamOwners();
 
-}
\ No newline at end of file
+  @Query("""
+      SELECT s.version AS version, s.viewersCount AS viewersCount, s.isLive AS isLive,
+             s.thumbnailUrl AS thumbnailUrl, s.updatedAt AS updatedAt
+      FROM Stream s WHERE s.id = :id""")
+  Optional<StreamVersionView> findVersionById(@Param("id") UUID id);
+}
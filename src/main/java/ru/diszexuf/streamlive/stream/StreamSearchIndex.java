@@ -0,0 +1,330 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over stream titles and descriptions.
+ * <p>
+ * Every word of a query must occur in the title or description of a match, as a substring.
+ * Words of three characters or more are resolved through trigram postings and verified against
+ * the indexed text. Shorter words are looked up by prefix range in a sorted dictionary of the one-
+ * and two-character grams of every token, so they never scan the whole vocabulary.
+ * <p>
+ * Results are ranked with {@link KeysetCursor#ORDER}, live streams holding the priority flag. An
+ * empty query walks the ranking from the cursor; a word query keeps only the best {@code limit}
+ * candidates instead of sorting them all.
+ * <p>
+ * Reads are lock-free; writes are serialized and only ever come from stream lifecycle events
+ * and the startup rebuild.
+ */
+@Component
+public class StreamSearchIndex {
+
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int GRAM = 3;
+  private static final Comparator<Document> RANKING = Comparator.comparing(Document::position, KeysetCursor.ORDER);
+
+  private final Map<UUID, Document> documents = new ConcurrentHashMap<>();
+  private final NavigableSet<KeysetCursor> ranking = new ConcurrentSkipListSet<>(KeysetCursor.ORDER);
+  private final NavigableMap<String, Set<UUID>> shortGrams = new ConcurrentSkipListMap<>();
+  private final Map<String, Set<UUID>> trigrams = new ConcurrentHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+
+  /**
+   * @return ids of matching streams ranked after {@code after}, at most {@code limit} of them
+   */
+  public List<UUID> search(String query, KeysetCursor after, int limit) {
+    List<String> words = words(query);
+    if (words.isEmpty()) {
+      return walk(after, limit);
+    }
+    return rank(match(words), after, limit);
+  }
+
+  /**
+   * Same as {@link #search(String, KeysetCursor, int)}, restricted to the streams in {@code within}.
+   */
+  public List<UUID> search(String query, Set<UUID> within, KeysetCursor after, int limit) {
+    List<String> words = words(query);
+    if (words.isEmpty()) {
+      return rank(within.stream().map(documents::get).filter(Objects::nonNull).toList(), after, limit);
+    }
+    return rank(match(words).stream().filter(document -> within.contains(document.id())).toList(), after, limit);
+  }
+
+  /**
+   * Reads the first {@code limit} entries of the ranking after the cursor. A position replaced by a
+   * concurrent write is skipped, so a stream never shows up twice.
+   */
+  private List<UUID> walk(KeysetCursor after, int limit) {
+    List<UUID> page = new ArrayList<>(limit);
+    for (KeysetCursor position : ranking.tailSet(after, false)) {
+      if (page.size() == limit) {
+        break;
+      }
+      Document document = documents.get(position.id());
+      if (document != null && document.position().equals(position)) {
+        page.add(position.id());
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Bounded top-k: a heap of at most {@code limit} candidates whose head is the worst one kept.
+   */
+  private static List<UUID> rank(Collection<Document> candidates, KeysetCursor after, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    PriorityQueue<Document> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+    for (Document document : candidates) {
+      if (KeysetCursor.ORDER.compare(document.position(), after) <= 0) {
+        continue;
+      }
+      if (best.size() < limit) {
+        best.add(document);
+      } else if (RANKING.compare(document, best.peek()) < 0) {
+        best.poll();
+        best.add(document);
+      }
+    }
+    List<Document> page = new ArrayList<>(best);
+    page.sort(RANKING);
+    return page.stream().map(Document::id).toList();
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  public void put(UUID id, String title, String description, boolean live, LocalDateTime startedAt) {
+    put(new Document(id, text(title, description), new KeysetCursor(live, startedAt, id), System.nanoTime()));
+  }
+
+  /**
+   * Indexes a row read from the database unless the stream changed after {@code readStartedAt}.
+   */
+  public void rebuild(StreamSearchView view, long readStartedAt) {
+    writeLock.lock();
+    try {
+      Document existing = documents.get(view.getId());
+      if (existing != null && existing.touchedAt() >= readStartedAt) {
+        return;
+      }
+      put(new Document(view.getId(), text(view.getTitle(), view.getDescription()),
+          new KeysetCursor(Boolean.TRUE.equals(view.getIsLive()), view.getStartedAt(), view.getId()), readStartedAt));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void markEnded(UUID id) {
+    writeLock.lock();
+    try {
+      Document existing = documents.get(id);
+      if (existing != null) {
+        KeysetCursor position = existing.position();
+        KeysetCursor ended = new KeysetCursor(false, position.at(), id);
+        ranking.add(ended);
+        documents.put(id, new Document(id, existing.text(), ended, System.nanoTime()));
+        if (!ended.equals(position)) {
+          ranking.remove(position);
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void remove(UUID id) {
+    writeLock.lock();
+    try {
+      Document existing = documents.remove(id);
+      if (existing != null) {
+        ranking.remove(existing.position());
+        unlink(existing);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamStarted(StreamStartedEvent event) {
+    put(event.stream());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamUpdated(StreamUpdatedEvent event) {
+    put(event.stream());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamEnded(StreamEndedEvent event) {
+    markEnded(event.streamId());
+  }
+
+  private void put(StreamResponseDto stream) {
+    LocalDateTime startedAt = stream.getStartedAt() == null ? null : stream.getStartedAt().toLocalDateTime();
+    put(stream.getId(), stream.getTitle(), stream.getDescription(), Boolean.TRUE.equals(stream.getIsLive()), startedAt);
+  }
+
+  private void put(Document document) {
+    writeLock.lock();
+    try {
+      ranking.add(document.position());
+      Document previous = documents.put(document.id(), document);
+      if (previous != null) {
+        if (!previous.position().equals(document.position())) {
+          ranking.remove(previous.position());
+        }
+        if (previous.text().equals(document.text())) {
+          return;
+        }
+        unlink(previous);
+      }
+      for (String gram : shortGrams(document.text())) {
+        shortGrams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id());
+      }
+      for (String gram : grams(document.text())) {
+        trigrams.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id());
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void unlink(Document document) {
+    for (String gram : shortGrams(document.text())) {
+      detach(shortGrams, gram, document.id());
+    }
+    for (String gram : grams(document.text())) {
+      detach(trigrams, gram, document.id());
+    }
+  }
+
+  private static void detach(Map<String, Set<UUID>> postings, String key, UUID id) {
+    postings.computeIfPresent(key, (k, ids) -> {
+      ids.remove(id);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+
+  private List<Document> match(List<String> words) {
+    Set<UUID> result = null;
+    for (String word : words) {
+      Set<UUID> matches = word.length() >= GRAM ? matchByTrigrams(word) : matchByShortGrams(word);
+      if (result == null) {
+        result = matches;
+      } else {
+        result.retainAll(matches);
+      }
+      if (result.isEmpty()) {
+        return List.of();
+      }
+    }
+    List<Document> matched = new ArrayList<>(result.size());
+    for (UUID id : result) {
+      Document document = documents.get(id);
+      if (document != null && words.stream().allMatch(document.text()::contains)) {
+        matched.add(document);
+      }
+    }
+    return matched;
+  }
+
+  private Set<UUID> matchByTrigrams(String word) {
+    List<Set<UUID>> postings = new ArrayList<>();
+    for (String gram : grams(word)) {
+      Set<UUID> ids = trigrams.get(gram);
+      if (ids == null) {
+        return new HashSet<>();
+      }
+      postings.add(ids);
+    }
+    postings.sort(Comparator.comparingInt(Set::size));
+    Set<UUID> result = new HashSet<>(postings.get(0));
+    for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+      result.retainAll(postings.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Every occurrence of a one- or two-character word starts a short gram that has the word as its
+   * prefix, so the matches are the union of one key range.
+   */
+  private Set<UUID> matchByShortGrams(String word) {
+    Set<UUID> result = new HashSet<>();
+    for (Set<UUID> ids : shortGrams.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+      result.addAll(ids);
+    }
+    return result;
+  }
+
+  private static String text(String title, String description) {
+    String text = description == null ? title : title + " " + description;
+    return String.join(" ", words(text));
+  }
+
+  private static List<String> words(String text) {
+    if (text == null) {
+      return List.of();
+    }
+    return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+        .filter(word -> !word.isEmpty())
+        .distinct()
+        .toList();
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (String word : text.split(" ")) {
+      for (int i = 0; i + GRAM <= word.length(); i++) {
+        grams.add(word.substring(i, i + GRAM));
+      }
+    }
+    return grams;
+  }
+
+  /**
+   * The substrings of up to {@code GRAM - 1} characters starting at each position of each word.
+   */
+  private static Set<String> shortGrams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (String word : text.split(" ")) {
+      for (int i = 0; i < word.length(); i++) {
+        grams.add(word.substring(i, Math.min(i + GRAM - 1, word.length())));
+      }
+    }
+    return grams;
+  }
+
+  private record Document(UUID id, String text, KeysetCursor position, long touchedAt) {
+  }
+}
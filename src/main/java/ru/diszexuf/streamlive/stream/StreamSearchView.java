@@ -0,0 +1,16 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface StreamSearchView {
+  UUID getId();
+
+  String getTitle();
+
+  String getDescription();
+
+  Boolean getIsLive();
+
+  LocalDateTime getStartedAt();
+}
@@ -0,0 +1,6 @@
+package ru.diszexuf.streamlive.stream;
+
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+public record StreamStartedEvent(StreamResponseDto stream) {
+}
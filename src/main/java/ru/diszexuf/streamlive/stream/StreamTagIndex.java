@@ -0,0 +1,219 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tag filter for stream search. Tags are interned to integer ids and streams to dense ordinals,
+ * each tag keeps a compressed bitmap of the streams carrying it, and a {@link TagQuery} is
+ * evaluated as bitmap AND / OR / ANDNOT.
+ * <p>
+ * Published bitmaps are never mutated: a write copies the bitmap of each affected tag and swaps it
+ * in, so queries run without locking.
+ */
+@Component
+public class StreamTagIndex {
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final Map<String, Integer> dictionary = new ConcurrentHashMap<>();
+  private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+  private final Map<Integer, RoaringBitmap> postings = new ConcurrentHashMap<>();
+  private final Map<UUID, Set<Integer>> streamTags = new ConcurrentHashMap<>();
+  private volatile UUID[] streams = new UUID[1024];
+  private volatile RoaringBitmap all = new RoaringBitmap();
+  private int nextOrdinal;
+
+  /**
+   * @return ids of the streams matching the tag terms of {@code query}; a live view, not a copy
+   */
+  public Set<UUID> match(TagQuery query) {
+    RoaringBitmap result = query.required().isEmpty() ? all : null;
+    for (Set<String> group : query.required()) {
+      RoaringBitmap union = new RoaringBitmap();
+      for (String tag : group) {
+        union = RoaringBitmap.or(union, bitmap(tag));
+      }
+      result = result == null ? union : RoaringBitmap.and(result, union);
+    }
+    for (String tag : query.excluded()) {
+      result = RoaringBitmap.andNot(result, bitmap(tag));
+    }
+    return new StreamSet(result, streams);
+  }
+
+  public void index(UUID streamId, Collection<String> tags) {
+    writeLock.lock();
+    try {
+      int ordinal = ordinal(streamId);
+      Set<Integer> next = new HashSet<>();
+      if (tags != null) {
+        for (String tag : tags) {
+          String normalized = TagQuery.normalize(tag);
+          if (!normalized.isEmpty()) {
+            next.add(dictionary.computeIfAbsent(normalized, key -> dictionary.size()));
+          }
+        }
+      }
+      Set<Integer> previous = streamTags.getOrDefault(streamId, Set.of());
+
+      for (Integer tagId : previous) {
+        if (!next.contains(tagId)) {
+          RoaringBitmap copy = postings.getOrDefault(tagId, new RoaringBitmap()).clone();
+          copy.remove(ordinal);
+          publish(tagId, copy);
+        }
+      }
+      for (Integer tagId : next) {
+        if (!previous.contains(tagId)) {
+          RoaringBitmap copy = postings.getOrDefault(tagId, new RoaringBitmap()).clone();
+          copy.add(ordinal);
+          publish(tagId, copy);
+        }
+      }
+      if (!all.contains(ordinal)) {
+        RoaringBitmap copy = all.clone();
+        copy.add(ordinal);
+        all = copy;
+      }
+      streamTags.put(streamId, Set.copyOf(next));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Replaces the index content with {@code rows}. Holds the write lock for the whole read, so stream
+   * events committed meanwhile are applied on top of the rebuilt state rather than lost.
+   */
+  public void rebuild(java.util.stream.Stream<StreamTagView> rows) {
+    writeLock.lock();
+    try {
+      Map<Integer, RoaringBitmap> built = new HashMap<>();
+      Map<UUID, Set<Integer>> builtTags = new HashMap<>();
+      RoaringBitmap builtAll = new RoaringBitmap();
+
+      rows.forEach(row -> {
+        int ordinal = ordinal(row.getStreamId());
+        builtAll.add(ordinal);
+        Set<Integer> tagIds = builtTags.computeIfAbsent(row.getStreamId(), key -> new HashSet<>());
+        if (row.getTag() != null) {
+          String normalized = TagQuery.normalize(row.getTag());
+          if (!normalized.isEmpty()) {
+            int tagId = dictionary.computeIfAbsent(normalized, key -> dictionary.size());
+            tagIds.add(tagId);
+            built.computeIfAbsent(tagId, key -> new RoaringBitmap()).add(ordinal);
+          }
+        }
+      });
+
+      built.values().forEach(RoaringBitmap::runOptimize);
+      builtAll.runOptimize();
+      postings.clear();
+      postings.putAll(built);
+      streamTags.clear();
+      builtTags.forEach((streamId, tagIds) -> streamTags.put(streamId, Set.copyOf(tagIds)));
+      all = builtAll;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public int tagCount() {
+    return postings.size();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamStarted(StreamStartedEvent event) {
+    index(event.stream().getId(), event.stream().getTags());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamUpdated(StreamUpdatedEvent event) {
+    index(event.stream().getId(), event.stream().getTags());
+  }
+
+  private RoaringBitmap bitmap(String tag) {
+    Integer tagId = dictionary.get(tag);
+    RoaringBitmap bitmap = tagId == null ? null : postings.get(tagId);
+    return bitmap == null ? new RoaringBitmap() : bitmap;
+  }
+
+  private void publish(int tagId, RoaringBitmap bitmap) {
+    if (bitmap.isEmpty()) {
+      postings.remove(tagId);
+    } else {
+      bitmap.runOptimize();
+      postings.put(tagId, bitmap);
+    }
+  }
+
+  private int ordinal(UUID streamId) {
+    Integer existing = ordinals.get(streamId);
+    if (existing != null) {
+      return existing;
+    }
+    int ordinal = nextOrdinal++;
+    UUID[] current = streams;
+    if (ordinal >= current.length) {
+      current = Arrays.copyOf(current, current.length * 2);
+    }
+    current[ordinal] = streamId;
+    streams = current;
+    ordinals.put(streamId, ordinal);
+    return ordinal;
+  }
+
+  /**
+   * Set view over a bitmap of ordinals, so large results are never copied into a {@code HashSet}.
+   */
+  private final class StreamSet extends AbstractSet<UUID> {
+    private final RoaringBitmap bitmap;
+    private final UUID[] ids;
+
+    private StreamSet(RoaringBitmap bitmap, UUID[] ids) {
+      this.bitmap = bitmap;
+      this.ids = ids;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer ordinal = o instanceof UUID id ? ordinals.get(id) : null;
+      return ordinal != null && bitmap.contains(ordinal);
+    }
+
+    @Override
+    public Iterator<UUID> iterator() {
+      IntIterator ordinals = bitmap.getIntIterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return ordinals.hasNext();
+        }
+
+        @Override
+        public UUID next() {
+          return ids[ordinals.next()];
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return bitmap.getCardinality();
+    }
+  }
+}
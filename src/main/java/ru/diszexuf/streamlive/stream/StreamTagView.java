@@ -0,0 +1,9 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.util.UUID;
+
+public interface StreamTagView {
+  UUID getStreamId();
+
+  String getTag();
+}
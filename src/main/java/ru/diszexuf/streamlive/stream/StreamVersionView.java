@@ -0,0 +1,15 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.time.LocalDateTime;
+
+public interface StreamVersionView {
+  Long getVersion();
+
+  Integer getViewersCount();
+
+  Boolean getIsLive();
+
+  String getThumbnailUrl();
+
+  LocalDateTime getUpdatedAt();
+}
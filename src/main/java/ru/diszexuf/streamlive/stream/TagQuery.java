@@ -0,0 +1,59 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Search query split into its tag terms and free text.
+ * <ul>
+ *   <li>{@code #a} - the stream must be tagged {@code a}</li>
+ *   <li>{@code #a|#b} - the stream must be tagged {@code a} or {@code b}</li>
+ *   <li>{@code -#a} - the stream must not be tagged {@code a}</li>
+ * </ul>
+ * Every other word is kept as text for the title search.
+ */
+public record TagQuery(List<Set<String>> required, Set<String> excluded, String text) {
+
+  public static TagQuery parse(String query) {
+    List<Set<String>> required = new ArrayList<>();
+    Set<String> excluded = new LinkedHashSet<>();
+    List<String> text = new ArrayList<>();
+
+    for (String term : query.trim().split("\\s+")) {
+      if (term.startsWith("-#")) {
+        String tag = normalize(term.substring(1));
+        if (!tag.isEmpty()) {
+          excluded.add(tag);
+        }
+      } else if (term.startsWith("#")) {
+        Set<String> group = Arrays.stream(term.split("\\|"))
+            .map(TagQuery::normalize)
+            .filter(tag -> !tag.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!group.isEmpty()) {
+          required.add(group);
+        }
+      } else if (!term.isEmpty()) {
+        text.add(term);
+      }
+    }
+    return new TagQuery(required, excluded, String.join(" ", text));
+  }
+
+  public static String normalize(String tag) {
+    String trimmed = tag.trim();
+    if (trimmed.startsWith("#")) {
+      trimmed = trimmed.substring(1);
+    }
+    return trimmed.toLowerCase(Locale.ROOT);
+  }
+
+  public boolean hasTags() {
+    return !required.isEmpty() || !excluded.isEmpty();
+  }
+}
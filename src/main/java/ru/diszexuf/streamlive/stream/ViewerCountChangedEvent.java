@@ -0,0 +1,6 @@
+package ru.diszexuf.streamlive.stream;
+
+import java.util.UUID;
+
+public record ViewerCountChangedEvent(UUID streamId, int viewerCount) {
+}
@@ -0,0 +1,150 @@
+package ru.diszexuf.streamlive.stream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mapstruct.Named;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Viewer counts per stream, updated without touching the database on the hot path.
+ * <p>
+ * Increments go to striped {@link LongAdder}s. A scheduled flush writes the current count of every
+ * stream that changed since the last flush to {@code streams.viewers_count} in one JDBC batch. The
+ * statement writes absolute values and bypasses the entity {@code @Version}, so it never conflicts
+ * with {@code UpdateStreamUseCase} and the column cannot drift from the in-memory count. It still
+ * bumps {@code updated_at}, which conditional GETs rely on.
+ * <p>
+ * The counts live only in this process and start at zero, so counts persisted by a previous run are
+ * reset at startup, before the live directory first reads them.
+ * <p>
+ * The column is not mapped for JPA updates, and stream DTOs of live streams take their count from
+ * here rather than from the loaded row, which may predate the last flush. Once a stream has ended
+ * its count is frozen: the flush only writes rows that are still live.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ViewerCounter {
+
+  private static final String FLUSH_SQL =
+      "UPDATE streams SET viewers_count = ?, updated_at = ? WHERE id = ? AND is_live = TRUE";
+
+  private static final String RESET_SQL =
+      "UPDATE streams SET viewers_count = 0, updated_at = ? WHERE viewers_count <> 0";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+
+  public void increment(UUID streamId) {
+    counter(streamId).add(1);
+  }
+
+  public void decrement(UUID streamId) {
+    counter(streamId).add(-1);
+  }
+
+  public long current(UUID streamId) {
+    Counter counter = counters.get(streamId);
+    return counter == null ? 0 : Math.max(counter.total.sum(), 0);
+  }
+
+  /**
+   * The count to show for {@code stream}: the in-memory count while it is live, the persisted one
+   * after it ended.
+   */
+  @Named("viewerCount")
+  public Integer viewerCount(Stream stream) {
+    return Boolean.TRUE.equals(stream.getIsLive()) ? (int) current(stream.getId()) : stream.getViewersCount();
+  }
+
+  /**
+   * Runs on {@link ApplicationStartedEvent}, which precedes the {@code ApplicationReadyEvent} that
+   * triggers the first live directory reconciliation.
+   */
+  @EventListener(ApplicationStartedEvent.class)
+  public void resetPersistedCounts() {
+    int reset = jdbcTemplate.update(RESET_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    if (reset > 0) {
+      log.info("Reset viewer counts of {} streams left over from the previous run", reset);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${streamlive.viewers.flush-interval}")
+  public void flush() {
+    List<Object[]> batch = new ArrayList<>();
+    Map<UUID, Long> flushed = new HashMap<>();
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    counters.forEach((streamId, counter) -> {
+      long delta = counter.pending.sumThenReset();
+      if (delta != 0) {
+        int viewerCount = (int) current(streamId);
+        flushed.put(streamId, delta);
+        batch.add(new Object[]{viewerCount, now, streamId});
+      }
+    });
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    int[] updated;
+    try {
+      updated = jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+    } catch (DataAccessException e) {
+      log.warn("Failed to flush viewer counts for {} streams, retrying on next flush", batch.size(), e);
+      flushed.forEach((streamId, delta) -> counter(streamId).pending.add(delta));
+      return;
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      if (updated[i] == 0) {
+        continue;
+      }
+      UUID streamId = (UUID) batch.get(i)[2];
+      int viewerCount = (int) batch.get(i)[0];
+      eventPublisher.publishEvent(new ViewerCountChangedEvent(streamId, viewerCount));
+    }
+  }
+
+  /**
+   * Drops the count of a stream that is no longer live.
+   */
+  public void discard(UUID streamId) {
+    counters.remove(streamId);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamEnded(StreamEndedEvent event) {
+    discard(event.streamId());
+  }
+
+  private Counter counter(UUID streamId) {
+    return counters.computeIfAbsent(streamId, key -> new Counter());
+  }
+
+  private static final class Counter {
+    private final LongAdder total = new LongAdder();
+    private final LongAdder pending = new LongAdder();
+
+    private void add(long delta) {
+      total.add(delta);
+      pending.add(delta);
+    }
+  }
+}
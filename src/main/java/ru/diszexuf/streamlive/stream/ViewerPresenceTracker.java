@@ -0,0 +1,155 @@
+package ru.diszexuf.streamlive.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import ru.diszexuf.streamlive.common.TimingWheel;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks who is watching which stream from the heartbeats of the HLS player.
+ * <p>
+ * A viewer session lives for {@code session-ttl} after its last heartbeat. Sessions expire through
+ * one {@link TimingWheel} ticked by a single scheduled task, and the per-stream counts live in
+ * {@link ViewerCounter}, so reading them is O(1).
+ * <p>
+ * Heartbeats are anonymous, so besides the global {@code max-sessions} cap every client address may
+ * hold at most {@code max-sessions-per-client} sessions; one client cannot inflate a count or fill
+ * the table with random session ids.
+ */
+@Component
+@Slf4j
+public class ViewerPresenceTracker {
+
+  private final ViewerCounter viewerCounter;
+  private final LiveStreamDirectory liveStreamDirectory;
+  private final long sessionTtlMillis;
+  private final int maxSessions;
+  private final int maxSessionsPerClient;
+  private final TimingWheel<UUID> wheel;
+  private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+  private final Map<String, Integer> sessionsPerClient = new ConcurrentHashMap<>();
+
+  public ViewerPresenceTracker(ViewerCounter viewerCounter,
+                               LiveStreamDirectory liveStreamDirectory,
+                               @Value("${streamlive.presence.session-ttl}") Duration sessionTtl,
+                               @Value("${streamlive.presence.max-sessions}") int maxSessions,
+                               @Value("${streamlive.presence.max-sessions-per-client}") int maxSessionsPerClient) {
+    this.viewerCounter = viewerCounter;
+    this.liveStreamDirectory = liveStreamDirectory;
+    this.sessionTtlMillis = sessionTtl.toMillis();
+    this.maxSessions = maxSessions;
+    this.maxSessionsPerClient = maxSessionsPerClient;
+    this.wheel = new TimingWheel<>(1000, 3, System.currentTimeMillis());
+  }
+
+  /**
+   * Starts or prolongs the session {@code sessionId} on {@code streamId}. A session that switches
+   * streams is moved, never counted twice. A new session counts against the limit of {@code client}.
+   * A stream that is not listed in {@link LiveStreamDirectory} is refused with 404.
+   */
+  public void heartbeat(UUID streamId, UUID sessionId, String client) {
+    long deadline = System.currentTimeMillis() + sessionTtlMillis;
+    Session existing = sessions.get(sessionId);
+    if (existing != null && existing.streamId().equals(streamId)) {
+      existing.timeout().extend(deadline);
+      return;
+    }
+    if (existing == null && sessions.size() >= maxSessions) {
+      throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Viewer session limit reached");
+    }
+
+    sessions.compute(sessionId, (id, current) -> {
+      if (current != null) {
+        if (current.streamId().equals(streamId)) {
+          current.timeout().extend(deadline);
+          return current;
+        }
+        current.timeout().cancel();
+        viewerCounter.decrement(current.streamId());
+      } else {
+        acquire(client);
+      }
+      viewerCounter.increment(streamId);
+      return new Session(streamId, current == null ? client : current.client(), wheel.schedule(id, deadline));
+    });
+
+    if (!liveStreamDirectory.isLive(streamId)) {
+      // The stream ended after the caller saw it live, and its cleanup may have run before this
+      // session was added. The directory drops a stream before that cleanup, so checking it again
+      // here catches every such heartbeat.
+      sessions.computeIfPresent(sessionId, (id, session) -> {
+        if (!session.streamId().equals(streamId)) {
+          return session;
+        }
+        session.timeout().cancel();
+        release(session.client());
+        return null;
+      });
+      viewerCounter.discard(streamId);
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stream is not live");
+    }
+  }
+
+  public long viewers(UUID streamId) {
+    return viewerCounter.current(streamId);
+  }
+
+  public long heartbeatIntervalSeconds() {
+    return Math.max(1, sessionTtlMillis / 3000);
+  }
+
+  public int sessionCount() {
+    return sessions.size();
+  }
+
+  @Scheduled(fixedRate = 1000)
+  public void expire() {
+    wheel.advance(System.currentTimeMillis(), timeout ->
+        sessions.computeIfPresent(timeout.value(), (id, session) -> {
+          if (session.timeout() != timeout) {
+            return session;
+          }
+          viewerCounter.decrement(session.streamId());
+          release(session.client());
+          return null;
+        }));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamEnded(StreamEndedEvent event) {
+    sessions.values().removeIf(session -> {
+      if (session.streamId().equals(event.streamId())) {
+        session.timeout().cancel();
+        release(session.client());
+        return true;
+      }
+      return false;
+    });
+  }
+
+  private void acquire(String client) {
+    sessionsPerClient.compute(client, (key, count) -> {
+      int next = count == null ? 1 : count + 1;
+      if (next > maxSessionsPerClient) {
+        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Viewer session limit reached for this client");
+      }
+      return next;
+    });
+  }
+
+  private void release(String client) {
+    sessionsPerClient.computeIfPresent(client, (key, count) -> count == 1 ? null : count - 1);
+  }
+
+  private record Session(UUID streamId, String client, TimingWheel.Timeout<UUID> timeout) {
+  }
+}
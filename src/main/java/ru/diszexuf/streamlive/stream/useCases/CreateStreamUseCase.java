@@ -1,89 +1,84 @@
 package ru.diszexuf.streamlive.stream.useCases;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.media.MediaKind;
+import ru.diszexuf.streamlive.media.MediaStorage;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
 import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.stream.StreamMapper;
 import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.StreamStartedEvent;
+import ru.diszexuf.streamlive.stream.StreamUpdatedEvent;
 import ru.diszexuf.streamlive.user.User;
 import ru.diszexuf.streamlive.user.UserRepository;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.NoSuchElementException;
-import java.util.UUID;
 
+/**
+ * Starts the current user's stream. When the user is already live, for instance because the
+ * encoder connected first and ingest started the stream, that stream is reused and retitled rather
+ * than a second one created.
+ */
 @UseCase
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class CreateStreamUseCase {
+  private static final String DEFAULT_THUMBNAIL = "https://picsum.photos/200/300";
+
   private final StreamRepository streamRepository;
+  private final StreamMapper streamMapper;
   private final UserRepository userRepository;
-
-  private static final String UPLOAD_DIR = "uploads/thumbnails/";
+  private final ApplicationEventPublisher eventPublisher;
+  private final MediaStorage mediaStorage;
+  private final TransactionTemplate transactionTemplate;
 
   public StreamResponseDto execute(String title, String description, MultipartFile thumbnailUrl) {
     String username = SecurityContextHolder.getContext().getAuthentication().getName();
-    User user = userRepository.findByUsername(username)
-        .orElseThrow(() -> new NoSuchElementException("User not found"));
 
-    String thumbnail;
-    if (thumbnailUrl != null && !thumbnailUrl.isEmpty()) {
-      try {
-        String extension = getFileExtension(thumbnailUrl.getOriginalFilename());
-        String fileName = UUID.randomUUID() + extension;
-        Path path = Paths.get(UPLOAD_DIR, fileName);
-        Files.createDirectories(path.getParent());
-        Files.copy(thumbnailUrl.getInputStream(), path);
-        thumbnail = "http://127.0.0.1:8080/uploads/thumbnails/" + fileName;
-      } catch (IOException e) {
-        throw new RuntimeException("Failed to upload thumbnail", e);
-      }
-    } else {
-      thumbnail = "https://picsum.photos/200/300";
-    }
+    String uploaded = thumbnailUrl != null && !thumbnailUrl.isEmpty()
+        ? mediaStorage.store(MediaKind.THUMBNAIL, thumbnailUrl)
+        : null;
 
-    Stream stream = Stream.builder()
-        .user(user)
-        .title(title)
-        .description(description)
-        .thumbnailUrl(thumbnail)
-        .startedAt(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime())
-//        .tags(tags != null ?
-//            new HashSet<>(tags) : new HashSet<>())
-        .isLive(true)
-        .viewersCount(0)
-        .build();
+    return transactionTemplate.execute(status -> {
+      User user = userRepository.findForUpdateByUsername(username)
+          .orElseThrow(() -> new NoSuchElementException("User not found"));
 
-    return mapToDto(streamRepository.save(stream));
-  }
+      Stream live = streamRepository.findByUserAndIsLiveTrue(user);
+      if (live != null) {
+        live.setTitle(title);
+        live.setDescription(description);
+        if (uploaded != null) {
+          live.setThumbnailUrl(uploaded);
+        }
+        StreamResponseDto dto = streamMapper.toDto(streamRepository.save(live));
+        eventPublisher.publishEvent(new StreamUpdatedEvent(dto));
+        return dto;
+      }
 
-  private String getFileExtension(String fileName) {
-    if (fileName == null || !fileName.contains(".")) {
-      return "";
-    }
-    return fileName.substring(fileName.lastIndexOf(".")).toLowerCase();
-  }
+      Stream stream = Stream.builder()
+          .user(user)
+          .title(title)
+          .description(description)
+          .thumbnailUrl(uploaded != null ? uploaded : DEFAULT_THUMBNAIL)
+          .startedAt(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime())
+//          .tags(tags != null ?
+//              new HashSet<>(tags) : new HashSet<>())
+          .isLive(true)
+          .viewersCount(0)
+          .build();
 
-  public StreamResponseDto mapToDto(Stream stream) {
-    return new StreamResponseDto()
-        .id(stream.getId())
-        .userId(stream.getUser().getId())
-        .title(stream.getTitle())
-        .description(stream.getDescription())
-        .thumbnailUrl(stream.getThumbnailUrl())
-        .streamKey(stream.getUser().getStreamKey())
-//        .tags(stream.getTags().stream().toList())
-        .isLive(stream.getIsLive())
-        .viewerCount(stream.getViewersCount());
+      StreamResponseDto dto = streamMapper.toDto(streamRepository.save(stream));
+      eventPublisher.publishEvent(new StreamStartedEvent(dto));
+      return dto;
+    });
   }
+
 }
\ No newline at end of file
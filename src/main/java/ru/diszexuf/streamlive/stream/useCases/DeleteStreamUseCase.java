@@ -3,13 +3,17 @@ package ru.diszexuf.streamlive.stream.useCases;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.stream.StreamEndedEvent;
 import ru.diszexuf.streamlive.stream.StreamRepository;
 import ru.diszexuf.streamlive.user.User;
 import ru.diszexuf.streamlive.user.UserRepository;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.NoSuchElementException;
 
 @UseCase
@@ -19,6 +23,7 @@ import java.util.NoSuchElementException;
 public class DeleteStreamUseCase {
     private final StreamRepository streamRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public void execute() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -26,6 +31,8 @@ public class DeleteStreamUseCase {
             .orElseThrow(() -> new NoSuchElementException("User not found"));
         Stream stream = streamRepository.findByUserAndIsLiveTrue(user);
         stream.setIsLive(false);
+        stream.setEndedAt(ZonedDateTime.now(ZoneOffset.UTC).toLocalDateTime());
         streamRepository.save(stream);
+        eventPublisher.publishEvent(new StreamEndedEvent(stream.getId(), user.getId()));
     }
 } 
\ No newline at end of file
@@ -2,12 +2,14 @@ package ru.diszexuf.streamlive.stream.useCases;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.common.KeysetPage;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
-import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.stream.StreamPageLoader;
 import ru.diszexuf.streamlive.stream.StreamRepository;
 
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,26 +18,13 @@ import java.util.UUID;
 @Transactional
 public class GetAllStreamsUseCase {
   private final StreamRepository streamRepository;
+  private final StreamPageLoader streamPageLoader;
 
-  public List<StreamResponseDto> execute() {
-    return streamRepository.findAll()
-        .stream()
-        .map(this::mapToDto)
-        .toList();
+  public KeysetPage<StreamResponseDto> execute(String cursor, Integer limit) {
+    KeysetCursor position = KeysetCursor.decode(cursor);
+    int size = KeysetPage.size(limit);
+    List<UUID> ids = streamRepository.findPageIds(position.at(), position.id(), Limit.of(size + 1));
+    return streamPageLoader.load(ids, size);
   }
 
-  public StreamResponseDto mapToDto(Stream stream) {
-    return new StreamResponseDto()
-        .id(stream.getId())
-        .userId(stream.getUser().getId())
-        .title(stream.getTitle())
-        .description(stream.getDescription())
-        .thumbnailUrl(stream.getThumbnailUrl())
-        .streamKey(stream.getUser().getStreamKey())
-        .tags(stream.getTags().stream().toList())
-        .isLive(stream.getIsLive())
-        .startedAt(stream.getStartedAt().atOffset(ZoneOffset.UTC))
-        .viewerCount(stream.getViewersCount());
-  }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+import ru.diszexuf.streamlive.security.UserDetailsImpl;
+import ru.diszexuf.streamlive.stream.LiveStreamDirectory;
+import ru.diszexuf.streamlive.user.FollowGraph;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Live streams on the channels the current user follows, answered from the follow graph and the
+ * live directory without touching the database.
+ */
+@UseCase
+@RequiredArgsConstructor
+public class GetFollowedLiveStreamsUseCase {
+  private static final Comparator<StreamResponseDto> NEWEST_FIRST = Comparator.comparing(
+      StreamResponseDto::getStartedAt, Comparator.nullsLast(Comparator.<OffsetDateTime>reverseOrder()));
+
+  private final FollowGraph followGraph;
+  private final LiveStreamDirectory liveStreamDirectory;
+
+  public List<StreamResponseDto> execute() {
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    return followGraph.liveFollowedStreams(principal.getId()).stream()
+        .map(liveStreamDirectory::get)
+        .filter(Objects::nonNull)
+        .sorted(NEWEST_FIRST)
+        .toList();
+  }
+}
@@ -1,41 +1,24 @@
 package ru.diszexuf.streamlive.stream.useCases;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import ru.diszexuf.streamlive.common.ResourceVersion;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
-import ru.diszexuf.streamlive.stream.Stream;
-import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.LiveStreamDirectory;
 
-import java.time.ZoneOffset;
 import java.util.List;
-import java.util.UUID;
 
 @UseCase
 @RequiredArgsConstructor
-@Transactional
 public class GetLiveStreamsUseCase {
-  private final StreamRepository streamRepository;
+  private final LiveStreamDirectory liveStreamDirectory;
 
   public List<StreamResponseDto> execute() {
-    return streamRepository.findByIsLiveTrue()
-        .stream()
-        .map(this::mapToDto)
-        .toList();
+    return liveStreamDirectory.list();
   }
 
-  public StreamResponseDto mapToDto(Stream stream) {
-    return new StreamResponseDto()
-        .id(stream.getId())
-        .userId(stream.getUser().getId())
-        .title(stream.getTitle())
-        .description(stream.getDescription())
-        .thumbnailUrl(stream.getThumbnailUrl())
-        .streamKey(stream.getUser().getStreamKey())
-        .tags(stream.getTags().stream().toList())
-        .isLive(stream.getIsLive())
-        .startedAt(stream.getStartedAt().atOffset(ZoneOffset.UTC))
-        .viewerCount(stream.getViewersCount());
+  public ResourceVersion version() {
+    return liveStreamDirectory.resourceVersion();
   }
 
-}
\ No newline at end of file
+}
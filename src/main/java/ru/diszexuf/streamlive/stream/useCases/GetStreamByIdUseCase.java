@@ -4,10 +4,9 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
-import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.stream.StreamMapper;
 import ru.diszexuf.streamlive.stream.StreamRepository;
 
-import java.time.ZoneOffset;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -16,25 +15,12 @@ import java.util.UUID;
 @Transactional
 public class GetStreamByIdUseCase {
     private final StreamRepository streamRepository;
+    private final StreamMapper streamMapper;
 
     public StreamResponseDto execute(UUID id) {
-        return streamRepository.findById(id)
-                .map(this::mapToDto)
+        return streamRepository.findWithDetailsById(id)
+                .map(streamMapper::toDto)
                 .orElseThrow(() -> new NoSuchElementException("Stream not found with id: " + id));
     }
 
-    public StreamResponseDto mapToDto(Stream stream) {
-        return new StreamResponseDto()
-            .id(stream.getId())
-            .userId(stream.getUser().getId())
-            .title(stream.getTitle())
-            .description(stream.getDescription())
-            .thumbnailUrl(stream.getThumbnailUrl())
-            .streamKey(stream.getUser().getStreamKey())
-            .tags(stream.getTags().stream().toList())
-            .isLive(stream.getIsLive())
-            .startedAt(stream.getStartedAt().atOffset(ZoneOffset.UTC))
-            .viewerCount(stream.getViewersCount());
-    }
-
 }
\ No newline at end of file
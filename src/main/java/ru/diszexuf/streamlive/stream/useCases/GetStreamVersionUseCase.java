@@ -0,0 +1,38 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import lombok.RequiredArgsConstructor;
+import ru.diszexuf.streamlive.common.ResourceVersion;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.media.ImageDerivatives;
+import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.StreamVersionView;
+import ru.diszexuf.streamlive.stream.ViewerCounter;
+
+import java.time.ZoneId;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Validators of a stream representation, read without loading the stream's associations. The
+ * viewer count and thumbnail variants change without bumping {@code @Version}, so they are part of
+ * the tag; the count is the in-memory one {@link ViewerCounter} also puts into the body. Nothing else in the representation comes from another row: of the owner it carries only
+ * the immutable {@code userId}, so user changes such as a stream key reset cannot make a 304 stale.
+ */
+@UseCase
+@RequiredArgsConstructor
+public class GetStreamVersionUseCase {
+    private final StreamRepository streamRepository;
+    private final ImageDerivatives imageDerivatives;
+    private final ViewerCounter viewerCounter;
+
+    public ResourceVersion execute(UUID id) {
+        StreamVersionView view = streamRepository.findVersionById(id)
+                .orElseThrow(() -> new NoSuchElementException("Stream not found with id: " + id));
+        return ResourceVersion.of(
+                view.getUpdatedAt() == null ? null : view.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant(),
+                view.getVersion(),
+                Boolean.TRUE.equals(view.getIsLive()) ? viewerCounter.current(id) : view.getViewersCount(),
+                imageDerivatives.thumbnailVariants(view.getThumbnailUrl()).size());
+    }
+
+}
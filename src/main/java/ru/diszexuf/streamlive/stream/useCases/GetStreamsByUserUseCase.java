@@ -2,14 +2,15 @@ package ru.diszexuf.streamlive.stream.useCases;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.common.KeysetPage;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
-import ru.diszexuf.streamlive.stream.Stream;
+import ru.diszexuf.streamlive.stream.StreamPageLoader;
 import ru.diszexuf.streamlive.stream.StreamRepository;
-import ru.diszexuf.streamlive.user.User;
 import ru.diszexuf.streamlive.user.UserRepository;
 
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
@@ -19,26 +20,17 @@ import java.util.UUID;
 @Transactional
 public class GetStreamsByUserUseCase {
     private final StreamRepository streamRepository;
+    private final StreamPageLoader streamPageLoader;
     private final UserRepository userRepository;
 
-    public List<StreamResponseDto> execute(UUID userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new NoSuchElementException("No such user"));
-        List<Stream> streams = streamRepository.findByUser(user);
-        return streams.stream().map(this::mapToDto).toList();
+    public KeysetPage<StreamResponseDto> execute(UUID userId, String cursor, Integer limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("No such user");
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        int size = KeysetPage.size(limit);
+        List<UUID> ids = streamRepository.findPageIdsByUser(userId, position.at(), position.id(), Limit.of(size + 1));
+        return streamPageLoader.load(ids, size);
     }
 
-    public StreamResponseDto mapToDto(Stream stream) {
-        return new StreamResponseDto()
-            .id(stream.getId())
-            .userId(stream.getUser().getId())
-            .title(stream.getTitle())
-            .description(stream.getDescription())
-            .thumbnailUrl(stream.getThumbnailUrl())
-            .streamKey(stream.getUser().getStreamKey())
-            .tags(stream.getTags().stream().toList())
-            .isLive(stream.getIsLive())
-            .startedAt(stream.getStartedAt().atOffset(ZoneOffset.UTC))
-            .viewerCount(stream.getViewersCount());
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.StreamSearchIndex;
+import ru.diszexuf.streamlive.stream.StreamSearchView;
+
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RebuildStreamSearchIndexUseCase {
+  private final StreamRepository streamRepository;
+  private final StreamSearchIndex streamSearchIndex;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void execute() {
+    long readStartedAt = System.nanoTime();
+    try (java.util.stream.Stream<StreamSearchView> views = streamRepository.streamSearchViews()) {
+      views.forEach(view -> streamSearchIndex.rebuild(view, readStartedAt));
+    }
+    log.info("Stream search index rebuilt in {} ms, {} streams indexed",
+        (System.nanoTime() - readStartedAt) / 1_000_000, streamSearchIndex.size());
+  }
+
+}
@@ -0,0 +1,31 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.StreamTagIndex;
+import ru.diszexuf.streamlive.stream.StreamTagView;
+
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RebuildStreamTagIndexUseCase {
+  private final StreamRepository streamRepository;
+  private final StreamTagIndex streamTagIndex;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void execute() {
+    long startedAt = System.nanoTime();
+    try (java.util.stream.Stream<StreamTagView> rows = streamRepository.streamTagViews()) {
+      streamTagIndex.rebuild(rows);
+    }
+    log.info("Stream tag index rebuilt in {} ms, {} tags indexed",
+        (System.nanoTime() - startedAt) / 1_000_000, streamTagIndex.tagCount());
+  }
+
+}
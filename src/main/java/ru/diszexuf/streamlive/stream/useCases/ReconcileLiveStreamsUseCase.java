@@ -0,0 +1,36 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+import ru.diszexuf.streamlive.stream.LiveStreamDirectory;
+import ru.diszexuf.streamlive.stream.StreamMapper;
+import ru.diszexuf.streamlive.stream.StreamRepository;
+
+import java.util.List;
+
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ReconcileLiveStreamsUseCase {
+  private final StreamRepository streamRepository;
+  private final StreamMapper streamMapper;
+  private final LiveStreamDirectory liveStreamDirectory;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(initialDelayString = "${streamlive.live-directory.reconcile-interval}",
+      fixedDelayString = "${streamlive.live-directory.reconcile-interval}")
+  public void execute() {
+    long readStartedAt = System.nanoTime();
+    List<StreamResponseDto> liveStreams = streamMapper.toDtos(streamRepository.findByIsLiveTrue());
+    liveStreamDirectory.reconcile(liveStreams, readStartedAt);
+    log.debug("Live stream directory reconciled, {} live streams", liveStreams.size());
+  }
+
+}
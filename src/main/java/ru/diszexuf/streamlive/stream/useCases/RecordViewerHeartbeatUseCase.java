@@ -0,0 +1,28 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.model.ViewerHeartbeatResponseDto;
+import ru.diszexuf.streamlive.stream.LiveStreamDirectory;
+import ru.diszexuf.streamlive.stream.ViewerPresenceTracker;
+
+import java.util.UUID;
+
+@UseCase
+@RequiredArgsConstructor
+public class RecordViewerHeartbeatUseCase {
+  private final LiveStreamDirectory liveStreamDirectory;
+  private final ViewerPresenceTracker viewerPresenceTracker;
+
+  public ViewerHeartbeatResponseDto execute(UUID streamId, UUID sessionId, String client) {
+    if (!liveStreamDirectory.isLive(streamId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stream is not live");
+    }
+    viewerPresenceTracker.heartbeat(streamId, sessionId, client);
+    return new ViewerHeartbeatResponseDto()
+        .viewerCount(viewerPresenceTracker.viewers(streamId))
+        .heartbeatIntervalSeconds(viewerPresenceTracker.heartbeatIntervalSeconds());
+  }
+}
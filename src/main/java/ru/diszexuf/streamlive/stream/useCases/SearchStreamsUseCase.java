@@ -3,42 +3,36 @@ package ru.diszexuf.streamlive.stream.useCases;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.common.KeysetPage;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.StreamResponseDto;
-import ru.diszexuf.streamlive.stream.Stream;
-import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.stream.StreamPageLoader;
+import ru.diszexuf.streamlive.stream.StreamSearchIndex;
+import ru.diszexuf.streamlive.stream.StreamTagIndex;
+import ru.diszexuf.streamlive.stream.TagQuery;
 
-import java.time.ZoneOffset;
 import java.util.List;
+import java.util.UUID;
 
 @UseCase
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class SearchStreamsUseCase {
-  private final StreamRepository streamRepository;
+  private final StreamSearchIndex streamSearchIndex;
+  private final StreamTagIndex streamTagIndex;
+  private final StreamPageLoader streamPageLoader;
 
-  public List<StreamResponseDto> execute(String query) {
-    if (query.startsWith("#")) {
-      String tag = query.substring(1).toLowerCase();
-      return streamRepository.findByTag(tag).stream().map(this::mapToDto).toList();
-    } else {
-      return streamRepository.findByTitleContainingIgnoreCase(query).stream().map(this::mapToDto).toList();
-    }
-  }
+  public KeysetPage<StreamResponseDto> execute(String query, String cursor, Integer limit) {
+    KeysetCursor position = KeysetCursor.decode(cursor);
+    int size = KeysetPage.size(limit);
 
-  public StreamResponseDto mapToDto(Stream stream) {
-    return new StreamResponseDto()
-        .id(stream.getId())
-        .userId(stream.getUser().getId())
-        .title(stream.getTitle())
-        .description(stream.getDescription())
-        .thumbnailUrl(stream.getThumbnailUrl())
-        .streamKey(stream.getUser().getStreamKey())
-        .tags(stream.getTags().stream().toList())
-        .isLive(stream.getIsLive())
-        .startedAt(stream.getStartedAt().atOffset(ZoneOffset.UTC))
-        .viewerCount(stream.getViewersCount());
+    TagQuery tagQuery = TagQuery.parse(query);
+    List<UUID> ids = tagQuery.hasTags()
+        ? streamSearchIndex.search(tagQuery.text(), streamTagIndex.match(tagQuery), position, size + 1)
+        : streamSearchIndex.search(query, position, size + 1);
+    return streamPageLoader.load(ids, size);
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package ru.diszexuf.streamlive.stream.useCases;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.stream.StreamEventBroadcaster;
+
+@UseCase
+@RequiredArgsConstructor
+public class SubscribeToStreamEventsUseCase {
+  private final StreamEventBroadcaster streamEventBroadcaster;
+
+  public SseEmitter execute() {
+    return streamEventBroadcaster.subscribe();
+  }
+
+}
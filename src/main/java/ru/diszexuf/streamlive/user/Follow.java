@@ -7,7 +7,15 @@ import ru.diszexuf.streamlive.common.CoreEntity;
 import java.util.UUID;
 
 @Entity
-@Table(name = "follows")
+@Table(
+        name = "follows",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_follows_follower_following", columnNames = {"follower_id", "following_id"})
+        },
+        indexes = {
+                @Index(name = "idx_follows_following", columnList = "following_id, follower_id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,11 +29,11 @@ public class Follow extends CoreEntity {
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "follower_id", unique = true, nullable = false, foreignKey = @ForeignKey(name = "fk_follow_follower"))
+    @JoinColumn(name = "follower_id", nullable = false, foreignKey = @ForeignKey(name = "fk_follow_follower"))
     private User follower;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "following_id", unique = true, nullable = false, foreignKey = @ForeignKey(name = "fk_follow_following"))
+    @JoinColumn(name = "following_id", nullable = false, foreignKey = @ForeignKey(name = "fk_follow_following"))
     private User following;
 
 }
\ No newline at end of file
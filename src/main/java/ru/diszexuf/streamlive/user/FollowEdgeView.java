@@ -0,0 +1,9 @@
+package ru.diszexuf.streamlive.user;
+
+import java.util.UUID;
+
+public interface FollowEdgeView {
+  UUID getFollowerId();
+
+  UUID getFollowingId();
+}
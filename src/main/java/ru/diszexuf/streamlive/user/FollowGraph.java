@@ -0,0 +1,216 @@
+package ru.diszexuf.streamlive.user;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.stream.LiveStreamOwnerView;
+import ru.diszexuf.streamlive.stream.StreamEndedEvent;
+import ru.diszexuf.streamlive.stream.StreamStartedEvent;
+import ru.diszexuf.streamlive.stream.StreamUpdatedEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Who follows whom, held in memory as adjacency sets in both directions, plus for every user the
+ * set of streams currently live on the channels they follow.
+ * <p>
+ * The live sets are maintained on write: a stream going live is added to the set of each follower
+ * of its channel and removed again when it ends, so the followed-channels feed is a single set
+ * lookup. Loaded at startup and kept current by the follow, user and stream events once their
+ * transaction commits. Writes are serialized; reads are lock-free.
+ */
+@Component
+public class FollowGraph {
+
+  private final Map<UUID, Set<UUID>> following = new ConcurrentHashMap<>();
+  private final Map<UUID, Set<UUID>> followers = new ConcurrentHashMap<>();
+  private final Map<UUID, UUID> liveStreamsByChannel = new ConcurrentHashMap<>();
+  private final Map<UUID, Set<UUID>> liveFollowed = new ConcurrentHashMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile boolean loaded;
+
+  /**
+   * @return ids of the live streams on channels {@code userId} follows
+   */
+  public Set<UUID> liveFollowedStreams(UUID userId) {
+    Set<UUID> streams = liveFollowed.get(userId);
+    return streams == null ? Set.of() : Collections.unmodifiableSet(streams);
+  }
+
+  public boolean isFollowing(UUID followerId, UUID followingId) {
+    Set<UUID> channels = following.get(followerId);
+    return channels != null && channels.contains(followingId);
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  public int size() {
+    return following.values().stream().mapToInt(Set::size).sum();
+  }
+
+  public void follow(UUID followerId, UUID followingId) {
+    writeLock.lock();
+    try {
+      link(following, followerId, followingId);
+      link(followers, followingId, followerId);
+      UUID liveStream = liveStreamsByChannel.get(followingId);
+      if (liveStream != null) {
+        link(liveFollowed, followerId, liveStream);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void unfollow(UUID followerId, UUID followingId) {
+    writeLock.lock();
+    try {
+      unlink(following, followerId, followingId);
+      unlink(followers, followingId, followerId);
+      UUID liveStream = liveStreamsByChannel.get(followingId);
+      if (liveStream != null) {
+        unlink(liveFollowed, followerId, liveStream);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void streamStarted(UUID channelId, UUID streamId) {
+    writeLock.lock();
+    try {
+      UUID previous = liveStreamsByChannel.put(channelId, streamId);
+      if (streamId.equals(previous)) {
+        return;
+      }
+      for (UUID followerId : followersOf(channelId)) {
+        if (previous != null) {
+          unlink(liveFollowed, followerId, previous);
+        }
+        link(liveFollowed, followerId, streamId);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void streamEnded(UUID channelId, UUID streamId) {
+    writeLock.lock();
+    try {
+      if (!liveStreamsByChannel.remove(channelId, streamId)) {
+        return;
+      }
+      for (UUID followerId : followersOf(channelId)) {
+        unlink(liveFollowed, followerId, streamId);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  public void remove(UUID userId) {
+    writeLock.lock();
+    try {
+      UUID liveStream = liveStreamsByChannel.remove(userId);
+      for (UUID followerId : followersOf(userId)) {
+        unlink(following, followerId, userId);
+        if (liveStream != null) {
+          unlink(liveFollowed, followerId, liveStream);
+        }
+      }
+      Set<UUID> channels = following.remove(userId);
+      if (channels != null) {
+        channels.forEach(channelId -> unlink(followers, channelId, userId));
+      }
+      followers.remove(userId);
+      liveFollowed.remove(userId);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Replaces the graph with {@code edges} and {@code liveStreams}. Holds the write lock for the
+   * whole read, so events committed meanwhile are applied on top of the loaded state rather than lost.
+   */
+  public void rebuild(java.util.stream.Stream<FollowEdgeView> edges, Collection<LiveStreamOwnerView> liveStreams) {
+    writeLock.lock();
+    try {
+      Map<UUID, Set<UUID>> builtFollowing = new HashMap<>();
+      Map<UUID, Set<UUID>> builtFollowers = new HashMap<>();
+      edges.forEach(edge -> {
+        builtFollowing.computeIfAbsent(edge.getFollowerId(), key -> ConcurrentHashMap.newKeySet()).add(edge.getFollowingId());
+        builtFollowers.computeIfAbsent(edge.getFollowingId(), key -> ConcurrentHashMap.newKeySet()).add(edge.getFollowerId());
+      });
+
+      following.clear();
+      followers.clear();
+      liveStreamsByChannel.clear();
+      liveFollowed.clear();
+      following.putAll(builtFollowing);
+      followers.putAll(builtFollowers);
+      for (LiveStreamOwnerView live : liveStreams) {
+        liveStreamsByChannel.put(live.getUserId(), live.getStreamId());
+        for (UUID followerId : followersOf(live.getUserId())) {
+          link(liveFollowed, followerId, live.getStreamId());
+        }
+      }
+      loaded = true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onFollowed(FollowedEvent event) {
+    follow(event.followerId(), event.followingId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUnfollowed(UnfollowedEvent event) {
+    unfollow(event.followerId(), event.followingId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    remove(event.userId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamStarted(StreamStartedEvent event) {
+    streamStarted(event.stream().getUserId(), event.stream().getId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamUpdated(StreamUpdatedEvent event) {
+    if (Boolean.TRUE.equals(event.stream().getIsLive())) {
+      streamStarted(event.stream().getUserId(), event.stream().getId());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStreamEnded(StreamEndedEvent event) {
+    streamEnded(event.userId(), event.streamId());
+  }
+
+  private Set<UUID> followersOf(UUID userId) {
+    Set<UUID> users = followers.get(userId);
+    return users == null ? Set.of() : users;
+  }
+
+  private static void link(Map<UUID, Set<UUID>> adjacency, UUID from, UUID to) {
+    adjacency.computeIfAbsent(from, key -> ConcurrentHashMap.newKeySet()).add(to);
+  }
+
+  private static void unlink(Map<UUID, Set<UUID>> adjacency, UUID from, UUID to) {
+    adjacency.computeIfPresent(from, (key, set) -> set.remove(to) && set.isEmpty() ? null : set);
+  }
+}
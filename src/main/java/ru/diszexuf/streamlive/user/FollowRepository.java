@@ -0,0 +1,27 @@
+package ru.diszexuf.streamlive.user;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface FollowRepository extends JpaRepository<Follow, UUID> {
+  boolean existsByFollowerIdAndFollowingId(UUID followerId, UUID followingId);
+
+  @Modifying
+  @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+  int deleteEdge(@Param("followerId") UUID followerId, @Param("followingId") UUID followingId);
+
+  @Modifying
+  @Query("DELETE FROM Follow f WHERE f.follower.id = :userId OR f.following.id = :userId")
+  int deleteAllInvolving(@Param("userId") UUID userId);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT f.follower.id AS followerId, f.following.id AS followingId FROM Follow f")
+  java.util.stream.Stream<FollowEdgeView> edgeViews();
+}
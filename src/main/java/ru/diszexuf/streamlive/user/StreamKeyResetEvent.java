@@ -0,0 +1,6 @@
+package ru.diszexuf.streamlive.user;
+
+import java.util.UUID;
+
+public record StreamKeyResetEvent(UUID userId, String username, UUID streamKey) {
+}
@@ -0,0 +1,120 @@
+package ru.diszexuf.streamlive.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.diszexuf.streamlive.common.CountingBloomFilter;
+
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Probabilistic set of the usernames and emails in use, in front of the availability checks.
+ * <p>
+ * A miss means the value is definitely not taken; a hit only means it might be and has to be
+ * confirmed by the database. Values are normalized (trimmed, lower-cased) before hashing, so the
+ * filter is never more strict than the exact database lookup.
+ * <p>
+ * Built at startup and kept current by the user events. Removals requested before the startup
+ * load has finished are dropped: the deleted value may still be in the loaded state or not, and
+ * removing an absent value could hide a taken one. Until then every value is a possible hit.
+ */
+@Component
+public class UserAvailabilityFilter {
+
+  private final long expectedUsers;
+  private final double falsePositiveRate;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile CountingBloomFilter usernames;
+  private volatile CountingBloomFilter emails;
+  private volatile long loadedAt = Long.MAX_VALUE;
+
+  public UserAvailabilityFilter(@Value("${streamlive.users.availability-filter.expected-users}") long expectedUsers,
+                                @Value("${streamlive.users.availability-filter.false-positive-rate}") double falsePositiveRate) {
+    this.expectedUsers = expectedUsers;
+    this.falsePositiveRate = falsePositiveRate;
+    this.usernames = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+    this.emails = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+  }
+
+  public boolean mightHaveUsername(String username) {
+    return !isLoaded() || usernames.mightContain(normalize(username));
+  }
+
+  public boolean mightHaveEmail(String email) {
+    return !isLoaded() || emails.mightContain(normalize(email));
+  }
+
+  public boolean isLoaded() {
+    return loadedAt != Long.MAX_VALUE;
+  }
+
+  /**
+   * Replaces the filter content with {@code rows}. Holds the write lock for the whole read, so user
+   * events committed meanwhile are applied on top of the loaded state rather than lost.
+   */
+  public void rebuild(java.util.stream.Stream<UserIdentityView> rows) {
+    writeLock.lock();
+    try {
+      CountingBloomFilter builtUsernames = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+      CountingBloomFilter builtEmails = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+      rows.forEach(row -> {
+        builtUsernames.add(normalize(row.getUsername()));
+        builtEmails.add(normalize(row.getEmail()));
+      });
+      usernames = builtUsernames;
+      emails = builtEmails;
+      loadedAt = System.nanoTime();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserRegistered(UserRegisteredEvent event) {
+    writeLock.lock();
+    try {
+      usernames.add(normalize(event.username()));
+      emails.add(normalize(event.email()));
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserUpdated(UserUpdatedEvent event) {
+    String previous = normalize(event.previousEmail());
+    String current = normalize(event.email());
+    if (previous.equals(current)) {
+      return;
+    }
+    long requestedAt = System.nanoTime();
+    writeLock.lock();
+    try {
+      emails.add(current);
+      if (requestedAt > loadedAt) {
+        emails.remove(previous);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(UserDeletedEvent event) {
+    long requestedAt = System.nanoTime();
+    writeLock.lock();
+    try {
+      if (requestedAt > loadedAt) {
+        usernames.remove(normalize(event.username()));
+        emails.remove(normalize(event.email()));
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  static String normalize(String value) {
+    return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+  }
+}
@@ -1,12 +1,14 @@
 package ru.diszexuf.streamlive.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import ru.diszexuf.streamlive.api.UsersApi;
+import ru.diszexuf.streamlive.common.ConditionalGet;
 import ru.diszexuf.streamlive.model.RegenerateCurrentUserStreamKey200ResponseDto;
 import ru.diszexuf.streamlive.model.UserResponseDto;
 import ru.diszexuf.streamlive.user.useCases.*;
@@ -22,12 +24,15 @@ public class UserController implements UsersApi {
 
     private final GetAllUsersUseCase getAllUsersUseCase;
     private final GetUserByIdUseCase getUserByIdUseCase;
+    private final GetUserVersionUseCase getUserVersionUseCase;
     private final UpdateUserUseCase updateUserUseCase;
     private final DeleteUserUseCase deleteUserUseCase;
     private final GetCurrentUserUseCase getCurrentUserUseCase;
     private final ResetStreamKeyUseCase resetStreamKeyUseCase;
     private final CheckEmailAvailabilityUseCase checkEmailAvailabilityUseCase;
     private final CheckUsernameAvailabilityUseCase checkUsernameAvailabilityUseCase;
+    private final FollowUserUseCase followUserUseCase;
+    private final UnfollowUserUseCase unfollowUserUseCase;
 
     @Override
     public ResponseEntity<Boolean> checkEmailAvailability(String email) {
@@ -50,6 +55,18 @@ public class UserController implements UsersApi {
         return ResponseEntity.noContent().build();
     }
 
+    @Override
+    public ResponseEntity<Void> followUser(UUID userId) {
+        followUserUseCase.execute(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Override
+    public ResponseEntity<Void> unfollowUser(UUID userId) {
+        unfollowUserUseCase.execute(userId);
+        return ResponseEntity.noContent().build();
+    }
+
     @Override
     public ResponseEntity<List<UserResponseDto>> getAllUsers() {
         return ResponseEntity.ok(getAllUsersUseCase.execute());
@@ -62,6 +79,9 @@ public class UserController implements UsersApi {
 
     @Override
     public ResponseEntity<UserResponseDto> getUserById(UUID id) {
+        if (ConditionalGet.notModified(getUserVersionUseCase.execute(id))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return ResponseEntity.ok(getUserByIdUseCase.execute(id));
     }
 
@@ -0,0 +1,7 @@
+package ru.diszexuf.streamlive.user;
+
+public interface UserIdentityView {
+  String getUsername();
+
+  String getEmail();
+}
@@ -1,9 +1,18 @@
 package ru.diszexuf.streamlive.user;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,7 +21,43 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
   Optional<User> findByEmail(String email);
 
+  /**
+   * Loads the user with {@code SELECT ... FOR UPDATE}. Every path that may start a live stream takes
+   * this lock before checking for one, so a user never has two live streams.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT u FROM User u WHERE u.username = :username")
+  Optional<User> findForUpdateByUsername(@Param("username") String username);
+
+  /**
+   * Same as {@link #findForUpdateByUsername(String)}.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT u FROM User u WHERE u.id = :id")
+  Optional<User> findForUpdateById(@Param("id") UUID id);
+
   boolean existsByUsername(String username);
 
   boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.id AS id, u.streamKey AS streamKey FROM User u")
+  java.util.stream.Stream<StreamKeyView> streamKeyViews();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT u.username AS username, u.email AS email FROM User u")
+  java.util.stream.Stream<UserIdentityView> identityViews();
+
+  @Query("SELECT u.version AS version, u.followerCount AS followerCount, u.updatedAt AS updatedAt "
+      + "FROM User u WHERE u.id = :id")
+  Optional<UserVersionView> findVersionById(@Param("id") UUID id);
+
+  @Modifying
+  @Query("UPDATE User u SET u.followerCount = u.followerCount + :delta, u.updatedAt = :now WHERE u.id = :userId")
+  int adjustFollowerCount(@Param("userId") UUID userId, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query("UPDATE User u SET u.followerCount = u.followerCount - 1, u.updatedAt = :now "
+      + "WHERE u.id IN (SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId)")
+  int decrementFollowerCountsFollowedBy(@Param("followerId") UUID followerId, @Param("now") LocalDateTime now);
+}
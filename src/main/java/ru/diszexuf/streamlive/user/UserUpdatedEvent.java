@@ -0,0 +1,6 @@
+package ru.diszexuf.streamlive.user;
+
+import java.util.UUID;
+
+public record UserUpdatedEvent(UUID userId, String username, String previousEmail, String email) {
+}
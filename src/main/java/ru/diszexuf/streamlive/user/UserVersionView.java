@@ -0,0 +1,11 @@
+package ru.diszexuf.streamlive.user;
+
+import java.time.LocalDateTime;
+
+public interface UserVersionView {
+  Long getVersion();
+
+  Integer getFollowerCount();
+
+  LocalDateTime getUpdatedAt();
+}
@@ -1,18 +1,18 @@
 package ru.diszexuf.streamlive.user.useCases;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.user.UserAvailabilityFilter;
 import ru.diszexuf.streamlive.user.UserRepository;
 
 @UseCase
 @RequiredArgsConstructor
-@Transactional
 public class CheckUsernameAvailabilityUseCase {
 
     private final UserRepository userRepository;
+    private final UserAvailabilityFilter userAvailabilityFilter;
 
     public boolean execute(String username) {
-        return userRepository.existsByUsername(username);
+        return userAvailabilityFilter.mightHaveUsername(username) && userRepository.existsByUsername(username);
     }
 }
@@ -3,10 +3,15 @@ package ru.diszexuf.streamlive.user.useCases;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.notification.NotificationRepository;
+import ru.diszexuf.streamlive.user.FollowRepository;
 import ru.diszexuf.streamlive.user.User;
+import ru.diszexuf.streamlive.user.UserDeletedEvent;
 import ru.diszexuf.streamlive.user.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -16,10 +21,17 @@ import java.util.UUID;
 @Slf4j
 public class DeleteUserUseCase {
   private final UserRepository userRepository;
+  private final FollowRepository followRepository;
+  private final NotificationRepository notificationRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   public void execute(UUID userId) {
     User user = userRepository.findById(userId)
             .orElseThrow(() -> new NoSuchElementException("No such user with id: " + userId));
+    userRepository.decrementFollowerCountsFollowedBy(userId, LocalDateTime.now());
+    followRepository.deleteAllInvolving(userId);
+    notificationRepository.deleteAllOf(userId);
     userRepository.delete(user);
+    eventPublisher.publishEvent(new UserDeletedEvent(userId, user.getUsername(), user.getEmail()));
   }
 }
@@ -0,0 +1,47 @@
+package ru.diszexuf.streamlive.user.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.security.UserDetailsImpl;
+import ru.diszexuf.streamlive.user.Follow;
+import ru.diszexuf.streamlive.user.FollowRepository;
+import ru.diszexuf.streamlive.user.FollowedEvent;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+@UseCase
+@Transactional
+@RequiredArgsConstructor
+public class FollowUserUseCase {
+  private final UserRepository userRepository;
+  private final FollowRepository followRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public void execute(UUID userId) {
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    UUID followerId = principal.getId();
+    if (followerId.equals(userId)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Users cannot follow themselves");
+    }
+    if (!userRepository.existsById(userId)) {
+      throw new NoSuchElementException("No such user with id: " + userId);
+    }
+    if (followRepository.existsByFollowerIdAndFollowingId(followerId, userId)) {
+      return;
+    }
+    followRepository.save(Follow.builder()
+        .follower(userRepository.getReferenceById(followerId))
+        .following(userRepository.getReferenceById(userId))
+        .build());
+    userRepository.adjustFollowerCount(userId, 1, LocalDateTime.now());
+    eventPublisher.publishEvent(new FollowedEvent(followerId, userId));
+  }
+}
@@ -30,7 +30,6 @@ public class GetAllUsersUseCase {
         .email(user.getEmail())
         .avatarUrl(user.getAvatarUrl())
         .bio(user.getBio())
-        .followerCount(user.getFollowerCount())
-        .streamKey(user.getStreamKey());
+        .followerCount(user.getFollowerCount());
   }
 }
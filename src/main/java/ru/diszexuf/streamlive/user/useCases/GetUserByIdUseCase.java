@@ -33,8 +33,7 @@ public class GetUserByIdUseCase {
         .email(user.getEmail())
         .avatarUrl(user.getAvatarUrl())
         .bio(user.getBio())
-        .followerCount(user.getFollowerCount())
-        .streamKey(user.getStreamKey());
+        .followerCount(user.getFollowerCount());
   }
 
 }
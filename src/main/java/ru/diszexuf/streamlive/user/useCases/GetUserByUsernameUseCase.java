@@ -29,8 +29,7 @@ public class GetUserByUsernameUseCase {
         .email(user.getEmail())
         .avatarUrl(user.getAvatarUrl())
         .bio(user.getBio())
-        .followerCount(user.getFollowerCount())
-        .streamKey(user.getStreamKey());
+        .followerCount(user.getFollowerCount());
   }
 
 }
@@ -0,0 +1,30 @@
+package ru.diszexuf.streamlive.user.useCases;
+
+import lombok.RequiredArgsConstructor;
+import ru.diszexuf.streamlive.common.ResourceVersion;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.user.UserRepository;
+import ru.diszexuf.streamlive.user.UserVersionView;
+
+import java.time.ZoneId;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Validators of a user representation. The follower count is updated in bulk without bumping
+ * {@code @Version}, so it is part of the tag.
+ */
+@UseCase
+@RequiredArgsConstructor
+public class GetUserVersionUseCase {
+  private final UserRepository userRepository;
+
+  public ResourceVersion execute(UUID id) {
+    UserVersionView view = userRepository.findVersionById(id)
+        .orElseThrow(() -> new NoSuchElementException("User not found"));
+    return ResourceVersion.of(
+        view.getUpdatedAt() == null ? null : view.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant(),
+        view.getVersion(),
+        view.getFollowerCount());
+  }
+}
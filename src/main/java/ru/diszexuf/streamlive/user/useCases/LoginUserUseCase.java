@@ -33,10 +33,11 @@ public class LoginUserUseCase {
     }
 
     UserDetails userDetails = new UserDetailsImpl(
+        user.getId(),
         user.getUsername(),
         user.getPassword(),
         user.getAuthorities().stream()
-            .map(SimpleGrantedAuthority::new)
+            .map(authority -> new SimpleGrantedAuthority(authority.name()))
             .collect(Collectors.toList())
     );
 
@@ -0,0 +1,33 @@
+package ru.diszexuf.streamlive.user.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.stream.StreamRepository;
+import ru.diszexuf.streamlive.user.FollowEdgeView;
+import ru.diszexuf.streamlive.user.FollowGraph;
+import ru.diszexuf.streamlive.user.FollowRepository;
+
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RebuildFollowGraphUseCase {
+  private final FollowRepository followRepository;
+  private final StreamRepository streamRepository;
+  private final FollowGraph followGraph;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void execute() {
+    long startedAt = System.nanoTime();
+    try (java.util.stream.Stream<FollowEdgeView> edges = followRepository.edgeViews()) {
+      followGraph.rebuild(edges, streamRepository.liveStreamOwners());
+    }
+    log.info("Follow graph rebuilt in {} ms, {} follows indexed",
+        (System.nanoTime() - startedAt) / 1_000_000, followGraph.size());
+  }
+
+}
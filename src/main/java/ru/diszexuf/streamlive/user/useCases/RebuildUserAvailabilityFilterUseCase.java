@@ -0,0 +1,30 @@
+package ru.diszexuf.streamlive.user.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.user.UserAvailabilityFilter;
+import ru.diszexuf.streamlive.user.UserIdentityView;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+@UseCase
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RebuildUserAvailabilityFilterUseCase {
+  private final UserRepository userRepository;
+  private final UserAvailabilityFilter userAvailabilityFilter;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void execute() {
+    long startedAt = System.nanoTime();
+    try (java.util.stream.Stream<UserIdentityView> rows = userRepository.identityViews()) {
+      userAvailabilityFilter.rebuild(rows);
+    }
+    log.info("User availability filter rebuilt in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+}
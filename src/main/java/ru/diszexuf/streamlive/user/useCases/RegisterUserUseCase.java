@@ -2,6 +2,7 @@ package ru.diszexuf.streamlive.user.useCases;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,7 +12,10 @@ import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.AuthResponseDto;
 import ru.diszexuf.streamlive.model.UserRegisterRequestDto;
 import ru.diszexuf.streamlive.security.JwtService;
+import ru.diszexuf.streamlive.user.Authority;
 import ru.diszexuf.streamlive.user.User;
+import ru.diszexuf.streamlive.user.UserAvailabilityFilter;
+import ru.diszexuf.streamlive.user.UserRegisteredEvent;
 import ru.diszexuf.streamlive.security.UserDetailsImpl;
 import ru.diszexuf.streamlive.user.UserRepository;
 
@@ -24,12 +28,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RegisterUserUseCase {
     private final UserRepository userRepository;
+    private final UserAvailabilityFilter userAvailabilityFilter;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthResponseDto execute(UserRegisterRequestDto dto) {
-        boolean usernameExist = userRepository.existsByUsername(dto.getUsername());
-        boolean emailExist = userRepository.existsByEmail(dto.getEmail());
+        boolean usernameExist = userAvailabilityFilter.mightHaveUsername(dto.getUsername())
+                && userRepository.existsByUsername(dto.getUsername());
+        boolean emailExist = userAvailabilityFilter.mightHaveEmail(dto.getEmail())
+                && userRepository.existsByEmail(dto.getEmail());
 
         if (usernameExist && emailExist) {
             throw new ResponseStatusException(HttpStatus.CONFLICT,
@@ -42,7 +50,7 @@ public class RegisterUserUseCase {
                     "Email is already taken");
         }
 
-        Set<String> authorities = Set.of("ROLE_USER");
+        Set<Authority> authorities = Set.of(Authority.ROLE_VIEWER);
 
         User user = User.builder()
                 .username(dto.getUsername())
@@ -55,12 +63,14 @@ public class RegisterUserUseCase {
                 .build();
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId(), user.getUsername(), user.getEmail(), user.getStreamKey()));
 
         UserDetails userDetails = new UserDetailsImpl(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
                 user.getAuthorities().stream()
-                        .map(SimpleGrantedAuthority::new)
+                        .map(authority -> new SimpleGrantedAuthority(authority.name()))
                         .collect(Collectors.toList())
         );
 
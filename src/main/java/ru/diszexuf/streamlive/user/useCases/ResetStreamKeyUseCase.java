@@ -3,9 +3,11 @@ package ru.diszexuf.streamlive.user.useCases;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import ru.diszexuf.streamlive.common.UseCase;
 import ru.diszexuf.streamlive.model.RegenerateCurrentUserStreamKey200ResponseDto;
+import ru.diszexuf.streamlive.user.StreamKeyResetEvent;
 import ru.diszexuf.streamlive.user.User;
 import ru.diszexuf.streamlive.user.UserRepository;
 
@@ -18,6 +20,7 @@ import java.util.UUID;
 @Transactional
 public class ResetStreamKeyUseCase {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RegenerateCurrentUserStreamKey200ResponseDto execute() {
       String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -26,6 +29,7 @@ public class ResetStreamKeyUseCase {
           .orElseThrow(() -> new NoSuchElementException("No such user"));
       user.setStreamKey(UUID.randomUUID());
       userRepository.save(user);
+      eventPublisher.publishEvent(new StreamKeyResetEvent(user.getId(), user.getUsername(), user.getStreamKey()));
       return new RegenerateCurrentUserStreamKey200ResponseDto().newStreamKey(user.getStreamKey());
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package ru.diszexuf.streamlive.user.useCases;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.diszexuf.streamlive.common.UseCase;
+import ru.diszexuf.streamlive.security.UserDetailsImpl;
+import ru.diszexuf.streamlive.user.FollowRepository;
+import ru.diszexuf.streamlive.user.UnfollowedEvent;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@UseCase
+@Transactional
+@RequiredArgsConstructor
+public class UnfollowUserUseCase {
+  private final UserRepository userRepository;
+  private final FollowRepository followRepository;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public void execute(UUID userId) {
+    UserDetailsImpl principal = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    UUID followerId = principal.getId();
+    if (followRepository.deleteEdge(followerId, userId) == 0) {
+      return;
+    }
+    userRepository.adjustFollowerCount(userId, -1, LocalDateTime.now());
+    eventPublisher.publishEvent(new UnfollowedEvent(followerId, userId));
+  }
+}
@@ -0,0 +1,137 @@
+package ru.diszexuf.streamlive.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * One tick is one millisecond and the wheel starts at 0, so deadlines read as tick numbers. With
+ * three levels of 64 slots, level 1 starts at 64 ticks, level 2 at 4096 and the wheel spans 262144.
+ */
+class TimingWheelTest {
+
+  @Test
+  void expiresAtTheDeadlineWithinTheFirstLevel() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    wheel.schedule("session", 10);
+
+    assertTrue(advance(wheel, 9).isEmpty());
+    assertEquals(List.of("session"), advance(wheel, 10));
+    assertTrue(advance(wheel, 100).isEmpty());
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {63, 64, 65, 127, 128, 4095, 4096, 4097, 8192, 262143, 262144, 300000})
+  void expiresExactlyAtLevelBoundaries(long deadline) {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    wheel.schedule("session", deadline);
+
+    assertTrue(advance(wheel, deadline - 1).isEmpty());
+    assertEquals(List.of("session"), advance(wheel, deadline));
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {64, 4096, 5000, 262144})
+  void expiresAtTheDeadlineWhenTickedOneByOne(long deadline) {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    wheel.schedule("session", deadline);
+
+    for (long now = 1; now < deadline; now++) {
+      assertTrue(advance(wheel, now).isEmpty(), "expired early at " + now);
+    }
+    assertEquals(List.of("session"), advance(wheel, deadline));
+  }
+
+  @Test
+  void cascadesTimeoutsScheduledMidRotation() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    advance(wheel, 4000);
+    wheel.schedule("level0", 4050);
+    wheel.schedule("level1", 4100);
+    wheel.schedule("level2", 4000 + 4096 + 5);
+
+    assertEquals(List.of("level0"), advance(wheel, 4050));
+    assertTrue(advance(wheel, 4099).isEmpty());
+    assertEquals(List.of("level1"), advance(wheel, 4100));
+    assertTrue(advance(wheel, 8100).isEmpty());
+    assertEquals(List.of("level2"), advance(wheel, 8101));
+  }
+
+  @Test
+  void extendingKeepsATimeoutArmedUntilTheNewDeadline() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    TimingWheel.Timeout<String> timeout = wheel.schedule("session", 30);
+
+    advance(wheel, 20);
+    timeout.extend(50);
+    assertTrue(advance(wheel, 49).isEmpty());
+    timeout.extend(5000);
+    assertTrue(advance(wheel, 4999).isEmpty());
+    assertEquals(List.of("session"), advance(wheel, 5000));
+  }
+
+  @Test
+  void extendingAcrossLevelsIsRefiledOnEveryCascade() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    TimingWheel.Timeout<String> timeout = wheel.schedule("session", 100);
+
+    for (long now = 90; now < 20000; now += 90) {
+      timeout.extend(now + 100);
+      assertTrue(advance(wheel, now).isEmpty(), "expired while kept alive at " + now);
+    }
+    assertEquals(List.of("session"), advance(wheel, 20080));
+  }
+
+  @Test
+  void cancelledTimeoutsNeverExpire() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    wheel.schedule("cancelled", 10).cancel();
+    wheel.schedule("cascaded", 5000).cancel();
+    wheel.schedule("kept", 10);
+
+    assertEquals(List.of("kept"), advance(wheel, 10));
+    assertTrue(advance(wheel, 10000).isEmpty());
+  }
+
+  @Test
+  void pastDeadlineExpiresOnTheNextTick() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    advance(wheel, 100);
+    wheel.schedule("late", 50);
+
+    assertEquals(List.of("late"), advance(wheel, 101));
+  }
+
+  @Test
+  void oneLargeStepExpiresEverythingDue() {
+    TimingWheel<String> wheel = new TimingWheel<>(1, 3, 0);
+    wheel.schedule("a", 5);
+    wheel.schedule("b", 640);
+    wheel.schedule("c", 70000);
+    wheel.schedule("d", 70001);
+
+    assertEquals(List.of("a", "b", "c"), advance(wheel, 70000));
+    assertEquals(List.of("d"), advance(wheel, 70001));
+  }
+
+  @Test
+  void deadlinesAreRoundedUpToWholeTicks() {
+    TimingWheel<String> wheel = new TimingWheel<>(1000, 3, 500);
+    wheel.schedule("session", 2600);
+
+    assertTrue(advance(wheel, 2600).isEmpty());
+    assertEquals(List.of("session"), advance(wheel, 3500));
+  }
+
+  private static List<String> advance(TimingWheel<String> wheel, long now) {
+    List<String> expired = new ArrayList<>();
+    wheel.advance(now, timeout -> expired.add(timeout.value()));
+    return expired;
+  }
+}
@@ -0,0 +1,84 @@
+package ru.diszexuf.streamlive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.diszexuf.streamlive.security.CustomUserDetailsService;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+import ru.diszexuf.streamlive.user.Authority;
+import ru.diszexuf.streamlive.user.UserRepository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CustomUserDetailsService userDetailsService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  private ApiFixtures fixtures;
+
+  @BeforeEach
+  void setUp() {
+    fixtures = new ApiFixtures(mockMvc, objectMapper);
+  }
+
+  @Test
+  void healthIsPublic() throws Exception {
+    mockMvc.perform(get("/actuator/health"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void metricsAreClosedToAnonymousCallers() throws Exception {
+    mockMvc.perform(get("/actuator/metrics"))
+        .andExpect(status().is4xxClientError());
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().is4xxClientError());
+  }
+
+  @Test
+  void metricsAreClosedToRegularUsers() throws Exception {
+    Account viewer = fixtures.register("actuator_viewer");
+
+    mockMvc.perform(viewer.authorize(get("/actuator/metrics")))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(viewer.authorize(get("/actuator/prometheus")))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void metricsAreOpenToAdmins() throws Exception {
+    Account admin = fixtures.register("actuator_admin");
+    transactionTemplate.executeWithoutResult(status -> userRepository.findByUsername(admin.username())
+        .orElseThrow()
+        .getAuthorities()
+        .add(Authority.ROLE_ADMIN));
+    userDetailsService.evict(admin.username());
+
+    mockMvc.perform(admin.authorize(get("/actuator/metrics")))
+        .andExpect(status().isOk());
+  }
+}
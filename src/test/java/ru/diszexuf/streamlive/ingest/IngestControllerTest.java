@@ -0,0 +1,139 @@
+package ru.diszexuf.streamlive.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IngestControllerTest {
+
+  private static final String SECRET = "local-ingest-secret";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private ApiFixtures fixtures;
+
+  @BeforeEach
+  void setUp() {
+    fixtures = new ApiFixtures(mockMvc, objectMapper);
+  }
+
+  @Test
+  void publishIsRedirectedToThePublicUserId() throws Exception {
+    Account streamer = fixtures.register("ing_streamer");
+
+    mockMvc.perform(callback("/api/ingest/publish", SECRET, streamKey(streamer).toString(), "1"))
+        .andExpect(status().isFound())
+        .andExpect(header().string(HttpHeaders.LOCATION, streamer.id().toString()));
+  }
+
+  @Test
+  void userIdIsNotAStreamKey() throws Exception {
+    Account streamer = fixtures.register("ing_impostor");
+
+    mockMvc.perform(callback("/api/ingest/publish", SECRET, streamer.id().toString(), "2"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void callbacksWithoutTheSecretAreRefused() throws Exception {
+    Account streamer = fixtures.register("ing_nosecret");
+    String streamKey = streamKey(streamer).toString();
+
+    mockMvc.perform(callback("/api/ingest/publish", null, streamKey, "3"))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(callback("/api/ingest/publish-done", "wrong", streamKey, "3"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void publicStreamAndProfileDoNotExposeTheStreamKey() throws Exception {
+    Account streamer = fixtures.register("ing_public");
+    UUID streamId = fixtures.startStream(streamer, "ingest key check");
+
+    mockMvc.perform(get("/api/streams/{streamId}", streamId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.streamKey").doesNotExist());
+    mockMvc.perform(get("/api/users/{userId}", streamer.id()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.streamKey").doesNotExist());
+  }
+
+  @Test
+  void creatingAStreamWhileIngestIsLiveReusesTheIngestStream() throws Exception {
+    Account streamer = fixtures.register("ing_both");
+    mockMvc.perform(callback("/api/ingest/publish", SECRET, streamKey(streamer).toString(), "4"))
+        .andExpect(status().isFound());
+    UUID ingestStream = awaitLiveStream(streamer);
+
+    UUID created = fixtures.startStream(streamer, "retitled from the UI");
+
+    assertEquals(ingestStream, created);
+    mockMvc.perform(get("/api/streams/user/{userId}", streamer.id()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].title").value("retitled from the UI"));
+  }
+
+  /**
+   * Ingest starts the stream asynchronously, on {@link IngestStateSync}.
+   */
+  private UUID awaitLiveStream(Account account) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (System.nanoTime() < deadline) {
+      String streams = mockMvc.perform(get("/api/streams/user/{userId}", account.id()))
+          .andExpect(status().isOk())
+          .andReturn().getResponse().getContentAsString();
+      for (JsonNode stream : objectMapper.readTree(streams)) {
+        if (stream.get("isLive").asBoolean()) {
+          return UUID.fromString(stream.get("id").asText());
+        }
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("Ingest did not start a stream for " + account.username());
+  }
+
+  private UUID streamKey(Account account) throws Exception {
+    String profile = mockMvc.perform(account.authorize(get("/api/users/me")))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return UUID.fromString(objectMapper.readTree(profile).get("streamKey").asText());
+  }
+
+  private static MockHttpServletRequestBuilder callback(String path, String secret, String name, String clientId) {
+    MockHttpServletRequestBuilder request = post(path)
+        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+        .param("name", name)
+        .param("clientid", clientId);
+    return secret == null ? request : request.queryParam("secret", secret);
+  }
+}
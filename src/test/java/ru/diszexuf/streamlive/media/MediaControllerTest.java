@@ -0,0 +1,132 @@
+package ru.diszexuf.streamlive.media;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MediaControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private ApiFixtures fixtures;
+
+  @BeforeEach
+  void setUp() {
+    fixtures = new ApiFixtures(mockMvc, objectMapper);
+  }
+
+  @Test
+  void htmlIsRefusedEvenUnderAnImageName() throws Exception {
+    Account account = fixtures.register("media_html");
+    byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+
+    uploadAvatar(account, new MockMultipartFile("avatarUrl", "avatar.html", "text/html", html))
+        .andExpect(status().isUnsupportedMediaType());
+    uploadAvatar(account, new MockMultipartFile("avatarUrl", "avatar.png", "image/png", html))
+        .andExpect(status().isUnsupportedMediaType());
+  }
+
+  @Test
+  void svgIsRefused() throws Exception {
+    Account account = fixtures.register("media_svg");
+    byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" onload=\"alert(1)\"/>".getBytes(StandardCharsets.UTF_8);
+
+    uploadAvatar(account, new MockMultipartFile("avatarUrl", "avatar.svg", "image/svg+xml", svg))
+        .andExpect(status().isUnsupportedMediaType());
+  }
+
+  @Test
+  void imageWithAMismatchedNameIsRefused() throws Exception {
+    Account account = fixtures.register("media_mismatch");
+
+    uploadAvatar(account, new MockMultipartFile("avatarUrl", "avatar.html", "image/png", png(8)))
+        .andExpect(status().isUnsupportedMediaType());
+    uploadAvatar(account, new MockMultipartFile("avatarUrl", "avatar.png", "text/html", png(8)))
+        .andExpect(status().isUnsupportedMediaType());
+  }
+
+  @Test
+  void storedImageIsServedWithoutSniffing() throws Exception {
+    Account account = fixtures.register("media_png");
+    byte[] image = png(9);
+
+    String path = avatarPath(account, new MockMultipartFile("avatarUrl", "avatar.PNG", "image/png", image));
+
+    mockMvc.perform(get(path))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+        .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+        .andExpect(content().bytes(image));
+  }
+
+  @Test
+  void rangeEndingBeforeItStartsIsIgnored() throws Exception {
+    Account account = fixtures.register("media_range");
+    byte[] image = png(10);
+    String path = avatarPath(account, new MockMultipartFile("avatarUrl", "avatar.png", "image/png", image));
+
+    mockMvc.perform(get(path).header(HttpHeaders.RANGE, "bytes=20-10"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+        .andExpect(content().bytes(image));
+    mockMvc.perform(get(path).header(HttpHeaders.RANGE, "bytes=" + image.length + "-"))
+        .andExpect(status().isRequestedRangeNotSatisfiable());
+    mockMvc.perform(get(path).header(HttpHeaders.RANGE, "bytes=0-3"))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-3/" + image.length));
+  }
+
+  private ResultActions uploadAvatar(Account account, MockMultipartFile file) throws Exception {
+    return mockMvc.perform(account.authorize(multipart(HttpMethod.PUT, "/api/users/me")
+        .file(file)
+        .param("email", account.username() + "@example.com")));
+  }
+
+  private String avatarPath(Account account, MockMultipartFile file) throws Exception {
+    String response = uploadAvatar(account, file)
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return URI.create(objectMapper.readTree(response).get("avatarUrl").asText()).getPath();
+  }
+
+  /**
+   * A small PNG whose pixels depend on {@code seed}, so every test stores its own file.
+   */
+  private static byte[] png(int seed) throws Exception {
+    BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+    image.setRGB(0, 0, seed);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", output);
+    return output.toByteArray();
+  }
+}
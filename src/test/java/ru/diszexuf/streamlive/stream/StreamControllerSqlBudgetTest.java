@@ -0,0 +1,136 @@
+package ru.diszexuf.streamlive.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+import ru.diszexuf.streamlive.support.sql.SqlBudget;
+import ru.diszexuf.streamlive.support.sql.SqlBudgetTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the stream endpoints. Every listing returns {@value #CHANNELS} streams, so a
+ * query issued per stream pushes it well past its budget.
+ */
+@SqlBudgetTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StreamControllerSqlBudgetTest {
+
+  private static final int CHANNELS = 6;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private ApiFixtures fixtures;
+  private Account viewer;
+  private Account firstChannel;
+  private final List<UUID> streams = new ArrayList<>();
+
+  @BeforeAll
+  void createStreams() throws Exception {
+    fixtures = new ApiFixtures(mockMvc, objectMapper);
+    viewer = fixtures.register("sv_viewer");
+    for (int i = 0; i < CHANNELS; i++) {
+      Account channel = fixtures.register("sv_channel" + i);
+      if (i == 0) {
+        firstChannel = channel;
+      }
+      streams.add(fixtures.startStream(channel, "budget marathon " + i));
+      fixtures.follow(viewer, channel);
+    }
+  }
+
+  @Test
+  void liveStreamsAreServedFromMemory(SqlBudget sql) throws Exception {
+    sql.perform(0, get("/api/streams/live"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void followedLiveStreamsAreServedFromMemory(SqlBudget sql) throws Exception {
+    sql.perform(0, viewer.authorize(get("/api/streams/following/live")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(CHANNELS));
+  }
+
+  @Test
+  void allStreamsPage(SqlBudget sql) throws Exception {
+    sql.perform(3, get("/api/streams").param("limit", "20"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void streamById(SqlBudget sql) throws Exception {
+    sql.perform(3, get("/api/streams/{streamId}", streams.get(0)))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void streamsByUser(SqlBudget sql) throws Exception {
+    sql.perform(4, get("/api/streams/user/{userId}", firstChannel.id()))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void search(SqlBudget sql) throws Exception {
+    sql.perform(2, get("/api/streams/search").param("query", "marathon"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(CHANNELS));
+  }
+
+  @Test
+  void createStream(SqlBudget sql) throws Exception {
+    Account channel = fixtures.register("sv_creator");
+    sql.perform(4, channel.authorize(multipart("/api/streams/me")
+            .param("title", "budget premiere")
+            .param("description", "first stream")))
+        .andExpect(status().is2xxSuccessful());
+  }
+
+  @Test
+  void updateStream(SqlBudget sql) throws Exception {
+    Account channel = fixtures.register("sv_updater");
+    fixtures.startStream(channel, "budget rehearsal");
+    sql.perform(4, channel.authorize(multipart(HttpMethod.PUT, "/api/streams/me")
+            .param("title", "budget rehearsal, take two")
+            .param("description", "renamed")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void endStream(SqlBudget sql) throws Exception {
+    Account channel = fixtures.register("sv_finisher");
+    fixtures.startStream(channel, "budget finale");
+    sql.perform(4, channel.authorize(delete("/api/streams/me")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void viewerHeartbeatIsCountedInMemory(SqlBudget sql) throws Exception {
+    String body = objectMapper.writeValueAsString(Map.of("sessionId", UUID.randomUUID()));
+    sql.perform(0, post("/api/streams/{streamId}/viewers/heartbeat", streams.get(1))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body))
+        .andExpect(status().isOk());
+  }
+}
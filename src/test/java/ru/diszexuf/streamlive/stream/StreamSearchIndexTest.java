@@ -0,0 +1,125 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.junit.jupiter.api.Test;
+import ru.diszexuf.streamlive.common.KeysetCursor;
+import ru.diszexuf.streamlive.model.StreamResponseDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamSearchIndexTest {
+
+  private static final LocalDateTime NOON = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+  private final StreamSearchIndex index = new StreamSearchIndex();
+  private final UUID speedrun = UUID.randomUUID();
+  private final UUID chess = UUID.randomUUID();
+
+  @Test
+  void oneAndTwoCharacterQueriesMatchInsideWords() {
+    index.put(speedrun, "Speedrun marathon", null, true, NOON);
+    index.put(chess, "Chess openings", null, true, NOON.minusHours(1));
+
+    assertEquals(List.of(speedrun), search("ru"));
+    assertEquals(List.of(speedrun), search("on"));
+    assertEquals(List.of(chess), search("ng"));
+    assertEquals(List.of(speedrun, chess), search("s"));
+    assertTrue(search("x").isEmpty());
+    assertTrue(search("zz").isEmpty());
+  }
+
+  @Test
+  void shortQueriesDoNotSpanWords() {
+    index.put(speedrun, "a b", null, true, NOON);
+
+    assertEquals(List.of(speedrun), search("a"));
+    assertTrue(search("ab").isEmpty());
+  }
+
+  @Test
+  void everyWordMustMatchTheTitleOrDescription() {
+    index.put(speedrun, "Speedrun marathon", "Retro games all night", true, NOON);
+    index.put(chess, "Chess openings", "Retro boards", true, NOON.minusHours(1));
+
+    assertEquals(List.of(speedrun, chess), search("retro"));
+    assertEquals(List.of(speedrun), search("retro mar"));
+    assertEquals(List.of(speedrun), search("ni spe"));
+    assertTrue(search("chess night").isEmpty());
+  }
+
+  @Test
+  void queriesIgnoreCaseAndPunctuation() {
+    index.put(speedrun, "Speedrun: Marathon!", null, true, NOON);
+
+    assertEquals(List.of(speedrun), search("SPEEDRUN"));
+    assertEquals(List.of(speedrun), search("mA"));
+    assertEquals(List.of(speedrun), search("marathon?"));
+  }
+
+  @Test
+  void renameReplacesTheIndexedTitle() {
+    index.onStreamStarted(new StreamStartedEvent(dto(speedrun, "Speedrun marathon", true)));
+
+    index.onStreamUpdated(new StreamUpdatedEvent(dto(speedrun, "Cooking show", true)));
+
+    assertTrue(search("speed").isEmpty());
+    assertTrue(search("ru").isEmpty());
+    assertEquals(List.of(speedrun), search("cook"));
+    assertEquals(List.of(speedrun), search("sh"));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void endedStreamRanksAfterLiveOnes() {
+    index.put(speedrun, "Speedrun marathon", null, true, NOON);
+    index.put(chess, "Chess speed openings", null, true, NOON.minusHours(1));
+
+    index.onStreamEnded(new StreamEndedEvent(speedrun, UUID.randomUUID()));
+
+    assertEquals(List.of(chess, speedrun), search("speed"));
+    assertEquals(List.of(chess, speedrun), search(""));
+    assertEquals(List.of(chess, speedrun), search("sp"));
+  }
+
+  @Test
+  void removedStreamIsNoLongerFound() {
+    index.put(speedrun, "Speedrun marathon", null, true, NOON);
+    index.put(chess, "Chess openings", null, true, NOON.minusHours(1));
+
+    index.remove(speedrun);
+
+    assertTrue(search("speedrun").isEmpty());
+    assertTrue(search("ru").isEmpty());
+    assertEquals(List.of(chess), search(""));
+    assertEquals(1, index.size());
+  }
+
+  @Test
+  void pagesContinueAfterTheCursor() {
+    UUID older = UUID.randomUUID();
+    index.put(speedrun, "Retro speedrun", null, true, NOON);
+    index.put(chess, "Retro chess", null, false, NOON.plusHours(1));
+    index.put(older, "Retro racing", null, true, NOON.minusHours(1));
+
+    assertEquals(List.of(speedrun, older), index.search("retro", KeysetCursor.FIRST, 2));
+    assertEquals(List.of(chess), index.search("retro", new KeysetCursor(true, NOON.minusHours(1), older), 2));
+    assertEquals(List.of(older, chess), index.search("", new KeysetCursor(true, NOON, speedrun), 5));
+  }
+
+  private List<UUID> search(String query) {
+    return index.search(query, KeysetCursor.FIRST, 10);
+  }
+
+  private static StreamResponseDto dto(UUID id, String title, boolean live) {
+    return new StreamResponseDto()
+        .id(id)
+        .title(title)
+        .isLive(live)
+        .startedAt(NOON.atOffset(ZoneOffset.UTC));
+  }
+}
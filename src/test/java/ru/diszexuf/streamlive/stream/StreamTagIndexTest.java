@@ -0,0 +1,98 @@
+package ru.diszexuf.streamlive.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamTagIndexTest {
+
+  private final StreamTagIndex index = new StreamTagIndex();
+  private final UUID speedrun = UUID.randomUUID();
+  private final UUID retroSpeedrun = UUID.randomUUID();
+  private final UUID chess = UUID.randomUUID();
+  private final UUID untagged = UUID.randomUUID();
+
+  @Test
+  void andOrAndNot() {
+    indexSamples();
+
+    assertEquals(Set.of(speedrun, retroSpeedrun), match("#speedrun"));
+    assertEquals(Set.of(retroSpeedrun), match("#speedrun #retro"));
+    assertEquals(Set.of(speedrun, retroSpeedrun, chess), match("#speedrun|#chess"));
+    assertEquals(Set.of(chess, untagged), match("-#speedrun"));
+    assertEquals(Set.of(speedrun), match("#speedrun -#retro"));
+    assertEquals(Set.of(retroSpeedrun, chess), match("#retro|#chess #retro|#speedrun|#chess -#boardgame"));
+    assertTrue(match("#unknown").isEmpty());
+    assertEquals(Set.of(speedrun, retroSpeedrun, chess, untagged), match("-#unknown"));
+  }
+
+  @Test
+  void tagsAreCaseFolded() {
+    index.index(speedrun, List.of("SpeedRun", "#Retro"));
+
+    assertEquals(Set.of(speedrun), match("#speedrun"));
+    assertEquals(Set.of(speedrun), match("#RETRO"));
+    assertTrue(match("-#SPEEDRUN").isEmpty());
+    assertEquals(2, index.tagCount());
+  }
+
+  @Test
+  void emptyTagsAreIgnored() {
+    index.index(untagged, Arrays.asList("", "  ", "#"));
+    index.index(chess, null);
+
+    assertEquals(0, index.tagCount());
+    assertEquals(Set.of(untagged, chess), match("-#anything"));
+  }
+
+  @Test
+  void retaggingDropsThePreviousTags() {
+    index.index(speedrun, List.of("speedrun", "retro"));
+
+    index.index(speedrun, List.of("chess"));
+
+    assertTrue(match("#speedrun").isEmpty());
+    assertTrue(match("#retro").isEmpty());
+    assertEquals(Set.of(speedrun), match("#chess"));
+    assertEquals(1, index.tagCount());
+  }
+
+  @Test
+  void queryKeepsTextApartFromTagTerms() {
+    TagQuery query = TagQuery.parse("  Mario  #Speedrun|#Retro  any%  -#Chess ");
+
+    assertEquals(List.of(Set.of("speedrun", "retro")), query.required());
+    assertEquals(Set.of("chess"), query.excluded());
+    assertEquals("Mario any%", query.text());
+    assertTrue(query.hasTags());
+  }
+
+  @Test
+  void queryWithoutTagTermsHasNoTags() {
+    TagQuery blank = TagQuery.parse("   ");
+    TagQuery emptyTags = TagQuery.parse("# -# #|");
+
+    assertFalse(blank.hasTags());
+    assertEquals("", blank.text());
+    assertFalse(emptyTags.hasTags());
+    assertEquals("", emptyTags.text());
+  }
+
+  private void indexSamples() {
+    index.index(speedrun, List.of("speedrun"));
+    index.index(retroSpeedrun, List.of("speedrun", "retro"));
+    index.index(chess, List.of("chess", "retro"));
+    index.index(untagged, List.of());
+  }
+
+  private Set<UUID> match(String query) {
+    return Set.copyOf(index.match(TagQuery.parse(query)));
+  }
+}
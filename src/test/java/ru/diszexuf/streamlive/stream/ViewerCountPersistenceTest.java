@@ -0,0 +1,110 @@
+package ru.diszexuf.streamlive.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stream writes through JPA must not roll back the viewer count {@link ViewerCounter} flushed in
+ * the meantime. The scheduled flush is pushed out of the way so the tests decide when counts are
+ * written.
+ */
+@SpringBootTest(properties = "streamlive.viewers.flush-interval=PT1H")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ViewerCountPersistenceTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private StreamRepository streamRepository;
+
+  @Autowired
+  private ViewerCounter viewerCounter;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void savingAStreamLoadedBeforeAFlushKeepsTheFlushedCount() throws Exception {
+    Account streamer = new ApiFixtures(mockMvc, objectMapper).register("vc_saver");
+    UUID streamId = new ApiFixtures(mockMvc, objectMapper).startStream(streamer, "before the flush");
+
+    transactionTemplate.executeWithoutResult(status -> {
+      Stream stream = streamRepository.findWithDetailsById(streamId).orElseThrow();
+      viewerCounter.increment(streamId);
+      viewerCounter.flush();
+      stream.setTitle("after the flush");
+      streamRepository.save(stream);
+    });
+
+    assertEquals(1, persistedCount(streamId));
+  }
+
+  @Test
+  void updatingAStreamBetweenTwoFlushesKeepsTheCountEverywhere() throws Exception {
+    ApiFixtures fixtures = new ApiFixtures(mockMvc, objectMapper);
+    Account streamer = fixtures.register("vc_updater");
+    UUID streamId = fixtures.startStream(streamer, "between flushes");
+
+    viewerCounter.increment(streamId);
+    viewerCounter.flush();
+    viewerCounter.increment(streamId);
+
+    mockMvc.perform(streamer.authorize(multipart(HttpMethod.PUT, "/api/streams/me")
+            .param("title", "retitled between flushes")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.viewerCount").value(2));
+    assertEquals(1, persistedCount(streamId));
+    assertEquals(1, liveDirectoryCount(streamId));
+
+    viewerCounter.flush();
+
+    assertEquals(2, persistedCount(streamId));
+    assertEquals(2, liveDirectoryCount(streamId));
+    mockMvc.perform(get("/api/streams/{streamId}", streamId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.viewerCount").value(2))
+        .andExpect(jsonPath("$.title").value("retitled between flushes"));
+  }
+
+  private int persistedCount(UUID streamId) {
+    return jdbcTemplate.queryForObject("SELECT viewers_count FROM streams WHERE id = ?", Integer.class, streamId);
+  }
+
+  private int liveDirectoryCount(UUID streamId) throws Exception {
+    String live = mockMvc.perform(get("/api/streams/live"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    for (var stream : objectMapper.readTree(live)) {
+      if (stream.get("id").asText().equals(streamId.toString())) {
+        return stream.get("viewerCount").asInt();
+      }
+    }
+    throw new AssertionError("Stream " + streamId + " is not in the live directory");
+  }
+}
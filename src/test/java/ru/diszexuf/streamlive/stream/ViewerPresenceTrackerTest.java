@@ -0,0 +1,89 @@
+package ru.diszexuf.streamlive.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A heartbeat that passed the liveness check just before its stream ended must not bring the
+ * stream's viewer count back.
+ */
+@SpringBootTest(properties = "streamlive.viewers.flush-interval=PT1H")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ViewerPresenceTrackerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ViewerPresenceTracker viewerPresenceTracker;
+
+  @Autowired
+  private ViewerCounter viewerCounter;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void heartbeatArrivingAfterTheStreamEndedIsDropped() throws Exception {
+    ApiFixtures fixtures = new ApiFixtures(mockMvc, objectMapper);
+    Account streamer = fixtures.register("presence_ender");
+    UUID streamId = fixtures.startStream(streamer, "ends mid heartbeat");
+
+    viewerPresenceTracker.heartbeat(streamId, UUID.randomUUID(), "10.0.0.1");
+    viewerCounter.flush();
+    mockMvc.perform(streamer.authorize(delete("/api/streams/me")))
+        .andExpect(status().isOk());
+    int sessions = viewerPresenceTracker.sessionCount();
+
+    ResponseStatusException refused = assertThrows(ResponseStatusException.class,
+        () -> viewerPresenceTracker.heartbeat(streamId, UUID.randomUUID(), "10.0.0.2"));
+
+    assertEquals(HttpStatus.NOT_FOUND, refused.getStatusCode());
+    assertEquals(sessions, viewerPresenceTracker.sessionCount());
+    assertEquals(0, viewerCounter.current(streamId));
+    viewerCounter.flush();
+    assertEquals(1, jdbcTemplate.queryForObject(
+        "SELECT viewers_count FROM streams WHERE id = ?", Integer.class, streamId));
+  }
+
+  @Test
+  void sessionMovingToAnEndedStreamIsDropped() throws Exception {
+    ApiFixtures fixtures = new ApiFixtures(mockMvc, objectMapper);
+    Account ended = fixtures.register("presence_left");
+    Account other = fixtures.register("presence_right");
+    UUID endedStream = fixtures.startStream(ended, "about to end");
+    UUID otherStream = fixtures.startStream(other, "keeps going");
+    UUID session = UUID.randomUUID();
+
+    viewerPresenceTracker.heartbeat(otherStream, session, "10.0.0.3");
+    mockMvc.perform(ended.authorize(delete("/api/streams/me")))
+        .andExpect(status().isOk());
+
+    assertThrows(ResponseStatusException.class,
+        () -> viewerPresenceTracker.heartbeat(endedStream, session, "10.0.0.3"));
+
+    assertEquals(0, viewerCounter.current(endedStream));
+    assertEquals(0, viewerCounter.current(otherStream));
+  }
+}
@@ -0,0 +1,75 @@
+package ru.diszexuf.streamlive.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Creates test data through the public API, so the in-memory indexes see it exactly as they would
+ * in production.
+ */
+public class ApiFixtures {
+
+  public static final String PASSWORD = "password123";
+
+  private final MockMvc mockMvc;
+  private final ObjectMapper objectMapper;
+
+  public ApiFixtures(MockMvc mockMvc, ObjectMapper objectMapper) {
+    this.mockMvc = mockMvc;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Registers a user and makes one authenticated request, so the principal is cached before any
+   * measured request.
+   */
+  public Account register(String username) throws Exception {
+    String body = objectMapper.writeValueAsString(Map.of(
+        "username", username,
+        "email", username + "@example.com",
+        "password", PASSWORD));
+    String response = mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().is2xxSuccessful())
+        .andReturn().getResponse().getContentAsString();
+    String token = objectMapper.readTree(response).get("token").asText();
+
+    String profile = mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return new Account(UUID.fromString(objectMapper.readTree(profile).get("id").asText()), username, token);
+  }
+
+  public UUID startStream(Account account, String title) throws Exception {
+    String response = mockMvc.perform(account.authorize(multipart("/api/streams/me")
+            .param("title", title)
+            .param("description", title + " description")))
+        .andExpect(status().is2xxSuccessful())
+        .andReturn().getResponse().getContentAsString();
+    return UUID.fromString(objectMapper.readTree(response).get("id").asText());
+  }
+
+  public void follow(Account follower, Account channel) throws Exception {
+    mockMvc.perform(follower.authorize(put("/api/users/{userId}/follow", channel.id())))
+        .andExpect(status().isNoContent());
+  }
+
+  public record Account(UUID id, String username, String token) {
+
+    public <T extends MockHttpServletRequestBuilder> T authorize(T request) {
+      request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+      return request;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package ru.diszexuf.streamlive.support.sql;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performs a request through {@link MockMvc} and fails when it executes more SQL statements than
+ * its budget allows. The failure lists every distinct statement with the number of times it ran,
+ * so an N+1 shows up as one query repeated once per row.
+ * <p>
+ * Obtained as a test method parameter from {@link SqlBudgetExtension}, which also writes all
+ * measurements of a test class to {@code build/reports/sql-budget}.
+ */
+public class SqlBudget {
+
+  private final MockMvc mockMvc;
+  private final List<Measurement> measurements = Collections.synchronizedList(new ArrayList<>());
+
+  SqlBudget(MockMvc mockMvc) {
+    this.mockMvc = mockMvc;
+  }
+
+  public ResultActions perform(int maxStatements, RequestBuilder request) throws Exception {
+    ResultActions result;
+    List<String> statements;
+    SqlRecorder.start();
+    try {
+      result = mockMvc.perform(request);
+    } finally {
+      statements = SqlRecorder.stop();
+    }
+    Measurement measurement = new Measurement(endpoint(result.andReturn().getRequest()), maxStatements, statements);
+    measurements.add(measurement);
+    if (measurement.exceeded()) {
+      throw new AssertionError(measurement.describe());
+    }
+    return result;
+  }
+
+  List<Measurement> measurements() {
+    return List.copyOf(measurements);
+  }
+
+  private static String endpoint(MockHttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+  }
+
+  record Measurement(String endpoint, int budget, List<String> statements) {
+
+    boolean exceeded() {
+      return statements.size() > budget;
+    }
+
+    /**
+     * @return distinct statements in execution order with the number of times each ran
+     */
+    Map<String, Integer> counts() {
+      Map<String, Integer> counts = new LinkedHashMap<>();
+      statements.forEach(sql -> counts.merge(sql, 1, Integer::sum));
+      return counts;
+    }
+
+    String describe() {
+      StringBuilder text = new StringBuilder()
+          .append(endpoint).append(" executed ").append(statements.size())
+          .append(" SQL statements, budget is ").append(budget).append('\n');
+      counts().forEach((sql, times) -> text
+          .append(String.format("  %3dx %s%s%n", times, sql, times > 1 ? "   <-- repeated" : "")));
+      return text.toString();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package ru.diszexuf.streamlive.support.sql;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves {@link SqlBudget} parameters, one instance per test class, and after the class has run
+ * writes its measurements to {@code build/reports/sql-budget/<TestClass>.txt}: one line per request
+ * with its budget and statement count, followed by the statements of every request that went over.
+ */
+public class SqlBudgetExtension implements ParameterResolver, AfterAllCallback {
+
+  private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+  private static final Path REPORTS = Path.of("build", "reports", "sql-budget");
+
+  @Override
+  public boolean supportsParameter(ParameterContext parameter, ExtensionContext context) {
+    return parameter.getParameter().getType() == SqlBudget.class;
+  }
+
+  @Override
+  public Object resolveParameter(ParameterContext parameter, ExtensionContext context) {
+    Class<?> testClass = context.getRequiredTestClass();
+    MockMvc mockMvc = SpringExtension.getApplicationContext(context).getBean(MockMvc.class);
+    return context.getRoot().getStore(NAMESPACE)
+        .getOrComputeIfAbsent(testClass, key -> new SqlBudget(mockMvc), SqlBudget.class);
+  }
+
+  @Override
+  public void afterAll(ExtensionContext context) throws IOException {
+    Class<?> testClass = context.getRequiredTestClass();
+    SqlBudget budget = context.getRoot().getStore(NAMESPACE).remove(testClass, SqlBudget.class);
+    if (budget == null) {
+      return;
+    }
+    List<String> lines = new ArrayList<>();
+    List<SqlBudget.Measurement> exceeded = new ArrayList<>();
+    for (SqlBudget.Measurement measurement : budget.measurements()) {
+      lines.add(String.format("%-6s %4d / %-4d %s", measurement.exceeded() ? "OVER" : "ok",
+          measurement.statements().size(), measurement.budget(), measurement.endpoint()));
+      if (measurement.exceeded()) {
+        exceeded.add(measurement);
+      }
+    }
+    for (SqlBudget.Measurement measurement : exceeded) {
+      lines.add("");
+      lines.add(measurement.describe().stripTrailing());
+    }
+    Files.createDirectories(REPORTS);
+    Files.write(REPORTS.resolve(testClass.getSimpleName() + ".txt"), lines);
+  }
+}
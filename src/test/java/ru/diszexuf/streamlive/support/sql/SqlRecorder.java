@@ -0,0 +1,52 @@
+package ru.diszexuf.streamlive.support.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects the SQL executed on the current thread between {@link #start()} and {@link #stop()}.
+ * Statements from other threads (scheduled flushes, notification fan-out) are never recorded, so a
+ * measurement only covers the request the test thread is serving.
+ */
+public final class SqlRecorder {
+
+  private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+  private SqlRecorder() {
+  }
+
+  public static void start() {
+    RECORDING.set(new ArrayList<>());
+  }
+
+  public static List<String> stop() {
+    List<String> statements = RECORDING.get();
+    RECORDING.remove();
+    return statements == null ? List.of() : statements;
+  }
+
+  static QueryExecutionListener listener() {
+    return new QueryExecutionListener() {
+      @Override
+      public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+      }
+
+      @Override
+      public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+          queries.forEach(query -> statements.add(normalize(query.getQuery())));
+        }
+      }
+    };
+  }
+
+  private static String normalize(String sql) {
+    return sql.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,33 @@
+package ru.diszexuf.streamlive.support.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@link DataSource} in a proxy that reports every executed statement to
+ * {@link SqlRecorder}, including the ones sent through {@code JdbcTemplate}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlRecordingConfiguration {
+
+  @Bean
+  static BeanPostProcessor sqlRecordingDataSource() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+          return ProxyDataSourceBuilder.create(dataSource)
+              .name(beanName)
+              .listener(SqlRecorder.listener())
+              .build();
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,84 @@
+package ru.diszexuf.streamlive.user;
+
+import org.junit.jupiter.api.Test;
+import ru.diszexuf.streamlive.common.CountingBloomFilter;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The filter behind {@link UserAvailabilityFilter}: removals must never produce a false negative
+ * for a value that is still present.
+ */
+class CountingBloomFilterTest {
+
+  @Test
+  void addedValueIsFoundAndRemovedValueIsNot() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    assertFalse(filter.mightContain("alice"));
+    filter.add("alice");
+    assertTrue(filter.mightContain("alice"));
+    filter.remove("alice");
+    assertFalse(filter.mightContain("alice"));
+  }
+
+  @Test
+  void valueAddedTwiceSurvivesOneRemoval() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    filter.add("alice");
+    filter.add("alice");
+    filter.remove("alice");
+
+    assertTrue(filter.mightContain("alice"));
+  }
+
+  @Test
+  void noFalseNegativesAfterDeletes() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+    List<String> values = IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@example.com").toList();
+    values.forEach(filter::add);
+
+    for (int i = 0; i < values.size(); i += 2) {
+      filter.remove(values.get(i));
+    }
+
+    for (int i = 1; i < values.size(); i += 2) {
+      assertTrue(filter.mightContain(values.get(i)), values.get(i));
+    }
+    long stillReported = IntStream.range(0, values.size() / 2)
+        .filter(i -> filter.mightContain(values.get(i * 2)))
+        .count();
+    assertTrue(stillReported < 25, "removed values still reported: " + stillReported);
+  }
+
+  @Test
+  void saturatedCountersStickAndKeepSharingValuesVisible() {
+    // Smallest filter: 64 counters, so "alice" and "bob" share most of them.
+    CountingBloomFilter filter = new CountingBloomFilter(1, 0.5);
+    for (int i = 0; i < 300; i++) {
+      filter.add("alice");
+    }
+    filter.add("bob");
+
+    for (int i = 0; i < 300; i++) {
+      filter.remove("alice");
+    }
+
+    assertTrue(filter.mightContain("bob"));
+    assertTrue(filter.mightContain("alice"), "saturated counters are never decremented");
+  }
+
+  @Test
+  void removingBelowZeroDoesNotWrapAround() {
+    CountingBloomFilter filter = new CountingBloomFilter(1000, 0.01);
+
+    filter.remove("ghost");
+
+    assertFalse(filter.mightContain("ghost"));
+  }
+}
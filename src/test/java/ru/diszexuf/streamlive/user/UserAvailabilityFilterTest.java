@@ -0,0 +1,78 @@
+package ru.diszexuf.streamlive.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAvailabilityFilterTest {
+
+  private final UserAvailabilityFilter filter = new UserAvailabilityFilter(1000, 0.01);
+
+  @Test
+  void everyValueMightBeTakenUntilLoaded() {
+    assertTrue(filter.mightHaveUsername("anyone"));
+    assertTrue(filter.mightHaveEmail("anyone@example.com"));
+
+    filter.rebuild(Stream.empty());
+
+    assertFalse(filter.mightHaveUsername("anyone"));
+    assertFalse(filter.mightHaveEmail("anyone@example.com"));
+  }
+
+  @Test
+  void lookupsAreNormalized() {
+    filter.rebuild(Stream.of(new Row("Alice", "Alice@Example.com")));
+
+    assertTrue(filter.mightHaveUsername("  alice "));
+    assertTrue(filter.mightHaveEmail("ALICE@example.COM"));
+  }
+
+  @Test
+  void registeredUserIsAdded() {
+    filter.rebuild(Stream.empty());
+
+    filter.onUserRegistered(new UserRegisteredEvent(UUID.randomUUID(), "bob", "bob@example.com", UUID.randomUUID()));
+
+    assertTrue(filter.mightHaveUsername("bob"));
+    assertTrue(filter.mightHaveEmail("bob@example.com"));
+  }
+
+  @Test
+  void changedEmailFreesThePreviousOne() {
+    filter.rebuild(Stream.of(new Row("carol", "carol@old.example")));
+
+    filter.onUserUpdated(new UserUpdatedEvent(UUID.randomUUID(), "carol", "carol@old.example", "carol@new.example"));
+
+    assertFalse(filter.mightHaveEmail("carol@old.example"));
+    assertTrue(filter.mightHaveEmail("carol@new.example"));
+  }
+
+  @Test
+  void deletedUserIsRemovedWithoutHidingOthers() {
+    filter.rebuild(Stream.of(new Row("dave", "dave@example.com"), new Row("erin", "erin@example.com")));
+
+    filter.onUserDeleted(new UserDeletedEvent(UUID.randomUUID(), "dave", "dave@example.com"));
+
+    assertFalse(filter.mightHaveUsername("dave"));
+    assertFalse(filter.mightHaveEmail("dave@example.com"));
+    assertTrue(filter.mightHaveUsername("erin"));
+    assertTrue(filter.mightHaveEmail("erin@example.com"));
+  }
+
+  private record Row(String username, String email) implements UserIdentityView {
+
+    @Override
+    public String getUsername() {
+      return username;
+    }
+
+    @Override
+    public String getEmail() {
+      return email;
+    }
+  }
+}
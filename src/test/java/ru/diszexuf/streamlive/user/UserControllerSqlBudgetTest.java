@@ -0,0 +1,136 @@
+package ru.diszexuf.streamlive.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.diszexuf.streamlive.support.ApiFixtures;
+import ru.diszexuf.streamlive.support.ApiFixtures.Account;
+import ru.diszexuf.streamlive.support.sql.SqlBudget;
+import ru.diszexuf.streamlive.support.sql.SqlBudgetTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the user endpoints. The user list covers more than {@value #USERS} users,
+ * so loading their authorities one user at a time exceeds its budget.
+ */
+@SqlBudgetTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserControllerSqlBudgetTest {
+
+  private static final int USERS = 6;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private ApiFixtures fixtures;
+  private final List<Account> accounts = new ArrayList<>();
+
+  @BeforeAll
+  void registerUsers() throws Exception {
+    fixtures = new ApiFixtures(mockMvc, objectMapper);
+    for (int i = 0; i < USERS; i++) {
+      accounts.add(fixtures.register("ub_user" + i));
+    }
+  }
+
+  @Test
+  void allUsers(SqlBudget sql) throws Exception {
+    sql.perform(2, get("/api/users"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void userById(SqlBudget sql) throws Exception {
+    sql.perform(3, get("/api/users/{userId}", accounts.get(0).id()))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void currentUser(SqlBudget sql) throws Exception {
+    sql.perform(2, accounts.get(0).authorize(get("/api/users/me")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void usernameAvailability(SqlBudget sql) throws Exception {
+    sql.perform(1, get("/api/users/availability/username").param("username", "ub_nobody"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void followAndUnfollow(SqlBudget sql) throws Exception {
+    Account follower = accounts.get(1);
+    Account channel = accounts.get(2);
+    sql.perform(4, follower.authorize(put("/api/users/{userId}/follow", channel.id())))
+        .andExpect(status().isNoContent());
+    sql.perform(2, follower.authorize(delete("/api/users/{userId}/follow", channel.id())))
+        .andExpect(status().isNoContent());
+  }
+
+  @Test
+  void emailAvailability(SqlBudget sql) throws Exception {
+    sql.perform(1, get("/api/users/availability/email").param("email", "ub_nobody@example.com"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void register(SqlBudget sql) throws Exception {
+    String body = objectMapper.writeValueAsString(Map.of(
+        "username", "ub_registered",
+        "email", "ub_registered@example.com",
+        "password", ApiFixtures.PASSWORD));
+    sql.perform(2, post("/api/users").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().is2xxSuccessful());
+  }
+
+  @Test
+  void login(SqlBudget sql) throws Exception {
+    String body = objectMapper.writeValueAsString(Map.of(
+        "username", accounts.get(3).username(),
+        "password", ApiFixtures.PASSWORD));
+    sql.perform(2, post("/api/sessions").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void updateProfile(SqlBudget sql) throws Exception {
+    Account account = accounts.get(4);
+    sql.perform(3, account.authorize(multipart(HttpMethod.PUT, "/api/users/me")
+            .param("email", account.username() + "@example.com")
+            .param("bio", "Speedruns on weekends")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void regenerateStreamKey(SqlBudget sql) throws Exception {
+    sql.perform(3, accounts.get(5).authorize(put("/api/users/me/streamkey")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void deleteUser(SqlBudget sql) throws Exception {
+    Account doomed = fixtures.register("ub_doomed");
+    fixtures.follow(accounts.get(0), doomed);
+    fixtures.follow(doomed, accounts.get(0));
+    sql.perform(6, doomed.authorize(delete("/api/users/{userId}", doomed.id())))
+        .andExpect(status().isNoContent());
+  }
+}
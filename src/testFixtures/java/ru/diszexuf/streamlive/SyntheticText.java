@@ -0,0 +1,44 @@
+package ru.diszexuf.streamlive;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Vocabulary of the generated stream titles, descriptions and tags, shared by the benchmarks, the
+ * load-test seeder and the dataset generator so their search queries hit the same words.
+ */
+public final class SyntheticText {
+
+  public static final String[] WORDS = {
+      "speedrun", "minecraft", "chill", "coding", "java", "spring", "music", "live", "chess", "retro",
+      "valorant", "dota", "cooking", "art", "drawing", "just", "chatting", "marathon", "ranked", "go",
+      "world", "record", "any", "percent", "co-op", "indie", "horror", "stream", "night", "morning"};
+
+  public static final String[] TAGS = {
+      "english", "russian", "gaming", "irl", "music", "esports", "speedrun", "creative", "education",
+      "tech", "retro", "chill", "competitive", "casual", "mature", "new", "drops", "tournament"};
+
+  private SyntheticText() {
+  }
+
+  public static String words(Random random, int count) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return text.toString();
+  }
+
+  public static Set<String> tags(Random random) {
+    Set<String> tags = new LinkedHashSet<>();
+    int count = 1 + random.nextInt(4);
+    while (tags.size() < count) {
+      tags.add(TAGS[random.nextInt(TAGS.length)]);
+    }
+    return tags;
+  }
+}